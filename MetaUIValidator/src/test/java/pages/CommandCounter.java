@@ -0,0 +1,49 @@
+package pages;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+/*
+ * Counts the WebDriver commands a test sends. Attach it with
+ *   driver = CommandCounter.attach(new ChromeDriver(), counter);
+ * Every call on the driver, its elements, navigation, window, alert or timeouts
+ * counts as one command, except the accessors that stay on the client
+ * (manage(), timeouts(), navigate(), getWrapped...). Calls made inside helpers
+ * such as Select go through the decorated elements and are counted too.
+ */
+public class CommandCounter implements WebDriverListener {
+
+    private static final Set<String> LOCAL = new HashSet<>(Arrays.asList(
+            "manage", "timeouts", "window", "navigate", "switchTo", "logs",
+            "getWrappedDriver", "getWrappedElement", "getCoordinates",
+            "equals", "hashCode", "toString"));
+
+    private final AtomicLong commands = new AtomicLong();
+
+    public static WebDriver attach(WebDriver driver, CommandCounter counter) {
+        return new EventFiringDecorator<>(counter).decorate(driver);
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (!LOCAL.contains(method.getName())) commands.incrementAndGet();
+    }
+
+    public long count() {
+        return commands.get();
+    }
+
+    // Commands sent while running the action
+    public long count(Runnable action) {
+        long before = commands.get();
+        action.run();
+        return commands.get() - before;
+    }
+}
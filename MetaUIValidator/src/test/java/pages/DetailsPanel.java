@@ -0,0 +1,28 @@
+package pages;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Everything the details panel shows for the opened resource, read at once by
+ * ProjectDetailsPage.readEntityDetails() / readEnumDetails() / readFlowDetails()
+ * / readFolderDetails(). Lists that do not apply to the resource type stay empty,
+ * and every list is in the order the panel shows its rows.
+ */
+public class DetailsPanel {
+
+    public String name;
+
+    // Entities: one row per field (name, data type, PK)
+    public List<FieldRow> fields = new ArrayList<>();
+
+    // Enumerations
+    public List<String> literals = new ArrayList<>();
+
+    // Flows: one row per input (name, data type)
+    public List<FieldRow> inputs = new ArrayList<>();
+
+    // Virtual folders
+    public String location;
+    public boolean citizenToolEnabled;
+}
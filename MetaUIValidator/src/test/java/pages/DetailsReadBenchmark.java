@@ -0,0 +1,104 @@
+package pages;
+
+import java.lang.reflect.InvocationHandler;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * WebDriver commands needed to read an entity's details panel: the per-element
+ * getters (getEntityName, getUIFieldNames, getUIFieldTypes, getUIPKStatuses)
+ * against readEntityDetails(), which reads the panel in one executeScript call.
+ *
+ * The counts do not depend on the browser, only on the number of rows and on how
+ * the getters walk the DOM, so the panel is simulated by an in-memory driver:
+ *   java -cp target/test-classes:... pages.DetailsReadBenchmark 200
+ * (field rows, each type dropdown has 10 options). Against a remote browser
+ * every command is one HTTP round trip.
+ */
+public class DetailsReadBenchmark {
+
+    private static final int OPTIONS = 10;
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        CommandCounter counter = new CommandCounter();
+        ProjectDetailsPage details = new ProjectDetailsPage(CommandCounter.attach(panel(rows), counter));
+
+        List<Object> perElement = new ArrayList<>();
+        long getters = counter.count(() -> perElement.addAll(Arrays.asList(details.getEntityName(),
+                details.getUIFieldNames(), details.getUIFieldTypes(), details.getUIPKStatuses())));
+        DetailsPanel[] panel = new DetailsPanel[1];
+        long singleCall = counter.count(() -> panel[0] = details.readEntityDetails());
+
+        List<String> names = new ArrayList<>(), types = new ArrayList<>();
+        List<Boolean> pks = new ArrayList<>();
+        for (FieldRow row : panel[0].fields) {
+            names.add(row.name);
+            types.add(row.type);
+            pks.add(row.pk);
+        }
+        if (!perElement.equals(Arrays.asList(panel[0].name, names, types, pks))) throw new IllegalStateException("Single-call read differs from the getters");
+        System.out.printf("Entity with %d fields: %d commands with the getters | %d with readEntityDetails (%.0fx fewer)%n",
+                rows, getters, singleCall, (double) getters / singleCall);
+    }
+
+    // Driver showing an entity "Sample" with the given number of field rows
+    private static WebDriver panel(int rows) {
+        List<WebElement> names = new ArrayList<>(), types = new ArrayList<>(), pks = new ArrayList<>();
+        Map<String, List<Object>> script = new LinkedHashMap<>();
+        script.put("name", new ArrayList<>(Arrays.asList("Sample")));
+        script.put("fields", new ArrayList<>());
+        for (int i = 0; i < rows; i++) {
+            String name = "field" + i, type = "TYPE" + (i % OPTIONS);
+            boolean pk = i == 0;
+            names.add(element("td", name, false, null));
+            List<WebElement> options = new ArrayList<>();
+            for (int o = 0; o < OPTIONS; o++) options.add(element("option", "TYPE" + o, o == i % OPTIONS, null));
+            types.add(element("select", "", false, options));
+            pks.add(element("input", "", pk, null));
+            script.get("fields").add(Arrays.asList(name, type, pk));
+        }
+        WebElement nameInput = element("input", "", false, null);
+        return (WebDriver) proxy(new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, (p, m, a) -> {
+            switch (m.getName()) {
+                case "findElement":
+                    return nameInput;
+                case "findElements":
+                    String xpath = a[0].toString();
+                    if (xpath.contains(ProjectDetailsPage.FIELD_NAMES)) return names;
+                    if (xpath.contains(ProjectDetailsPage.FIELD_TYPES)) return types;
+                    return pks;
+                case "executeScript":
+                    return script;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private static WebElement element(String tag, String text, boolean selected, List<WebElement> children) {
+        return (WebElement) proxy(new Class<?>[]{WebElement.class}, (p, m, a) -> {
+            switch (m.getName()) {
+                case "getTagName": return tag;
+                case "getText": return text;
+                case "getAttribute": return "value".equals(a[0]) ? "Sample" : null;
+                case "isSelected": return selected;
+                case "findElements": return children;
+                case "hashCode": return System.identityHashCode(p);
+                case "equals": return p == a[0];
+                default: return null;
+            }
+        });
+    }
+
+    private static Object proxy(Class<?>[] interfaces, InvocationHandler handler) {
+        return java.lang.reflect.Proxy.newProxyInstance(DetailsReadBenchmark.class.getClassLoader(), interfaces, handler);
+    }
+}
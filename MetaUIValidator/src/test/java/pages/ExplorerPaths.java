@@ -0,0 +1,119 @@
+package pages;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import utils.GenericResource;
+import utils.JsonParserUtil.Entity;
+import utils.JsonParserUtil.Enumeration;
+import utils.JsonParserUtil.FileFolder;
+import utils.JsonParserUtil.Flow;
+import utils.JsonParserUtil.Resource;
+import utils.ProjectModel;
+import utils.SectionRegistry;
+
+/*
+ * Explorer path of a resource, derived from the export instead of hard-coded:
+ *
+ *   Entity       Data -> Models -> <packages> -> Structures -> <name>
+ *   Enumeration  Data -> Models -> <packages> -> Enums -> <name>
+ *   Flow         Business Logic -> Server Flows -> Global Flows -> <name>
+ *                (Business Logic -> Server Flows -> <packages> -> <name> if it is in a package)
+ *   FileFolder   Resources -> Virtual Folders -> <name>
+ *
+ * <packages> follows $folderRef through the folders section, outermost package
+ * first (e.g. "SampleModel"). If a folder is not in the export, the package path
+ * is taken from $displayName ("SampleModel/SampleStrucuture").
+ */
+public class ExplorerPaths {
+
+    public static List<String> pathOf(ProjectModel model, Resource resource) {
+        List<String> path = new ArrayList<>();
+        if (resource instanceof Entity) {
+            path.addAll(Arrays.asList("Data", "Models"));
+            path.addAll(packagePath(model, resource));
+            path.add("Structures");
+            path.add(((Entity) resource).entityName);
+        } else if (resource instanceof Enumeration) {
+            path.addAll(Arrays.asList("Data", "Models"));
+            path.addAll(packagePath(model, resource));
+            path.add("Enums");
+            path.add(((Enumeration) resource).name);
+        } else if (resource instanceof Flow) {
+            path.addAll(Arrays.asList("Business Logic", "Server Flows"));
+            List<String> packages = packagePath(model, resource);
+            if (packages.isEmpty()) path.add("Global Flows");
+            else path.addAll(packages);
+            path.add(((Flow) resource).name);
+        } else if (resource instanceof FileFolder) {
+            path.addAll(Arrays.asList("Resources", "Virtual Folders", ((FileFolder) resource).name));
+        } else {
+            throw new IllegalArgumentException("No explorer path known for " + resource.getClass().getSimpleName()
+                    + " " + resource.ref);
+        }
+        return path;
+    }
+
+    /**
+     * Labels the export places in each explorer folder, by folder path: over the
+     * resources of every type with an explorer path, and every package of the
+     * folders section (under Data > Models and Business Logic > Server Flows,
+     * where packages are shown), so one type's folders also know the others.
+     */
+    public static Map<List<String>, Set<String>> childLabels(ProjectModel model) {
+        Map<List<String>, Set<String>> children = new HashMap<>();
+        List<Resource> resources = new ArrayList<>();
+        resources.addAll(model.getEntities());
+        resources.addAll(model.getEnumerations());
+        resources.addAll(model.getFlows());
+        resources.addAll(model.getFileFolders());
+        for (Resource resource : resources) addPath(children, pathOf(model, resource));
+        for (GenericResource folder : model.getSection(SectionRegistry.FOLDERS)) {
+            if (folder.name == null) continue;
+            List<String> packages = packagePath(model, folder);
+            packages.add(folder.name);
+            for (List<String> root : Arrays.asList(Arrays.asList("Data", "Models"), Arrays.asList("Business Logic", "Server Flows"))) {
+                List<String> path = new ArrayList<>(root);
+                path.addAll(packages);
+                addPath(children, path);
+            }
+        }
+        return children;
+    }
+
+    private static void addPath(Map<List<String>, Set<String>> children, List<String> path) {
+        for (int i = 0; i < path.size(); i++) {
+            children.computeIfAbsent(new ArrayList<>(path.subList(0, i)), f -> new LinkedHashSet<>()).add(path.get(i));
+        }
+    }
+
+    // Names of the packages containing the resource, outermost first
+    static List<String> packagePath(ProjectModel model, Resource resource) {
+        List<String> packages = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        String folderRef = resource.folderRef;
+        while (folderRef != null && seen.add(folderRef)) {
+            Resource folder = model.resolve(folderRef);
+            if (!(folder instanceof GenericResource)) return displayNamePackages(resource);
+            packages.add(((GenericResource) folder).name);
+            folderRef = folder.folderRef;
+        }
+        Collections.reverse(packages);
+        return packages;
+    }
+
+    // "SampleModel/Sub/SampleStrucuture" -> [SampleModel, Sub]
+    private static List<String> displayNamePackages(Resource resource) {
+        if (resource.displayName == null || resource.displayName.indexOf('/') < 0) return new ArrayList<>();
+        List<String> segments = new ArrayList<>(Arrays.asList(resource.displayName.split("/")));
+        segments.remove(segments.size() - 1);
+        return segments;
+    }
+}
@@ -0,0 +1,207 @@
+package pages;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+/*
+ * The rendered Project Explorer tree, read with a single executeScript call.
+ *
+ * For every node the script returns its label, depth, expanded and selected
+ * state, number of rendered children, whether it can be expanded at all, and a
+ * stable handle: a data-uiv-handle attribute put on the node's label element,
+ * so the node can be clicked later without an XPath search over the whole
+ * document. The label is the label element's own text with whitespace
+ * collapsed, without the text of child badges or counts, i.e. the text the
+ * //span[normalize-space(text())='...'] lookup matches. Navigation decisions and
+ * presence checks are then made against this in-memory copy.
+ *
+ * Tree nodes are the elements with role="treeitem". Trees without ARIA roles
+ * are read from the nested <li> elements of the explorer container only, never
+ * from other lists on the page (menus, breadcrumbs): the element matching
+ * -Dexplorer.container (a CSS selector), else the outermost <ul> around the
+ * label of a root node of the path being navigated (found like clickNode finds
+ * it). That <ul> is marked data-uiv-explorer, so later snapshots without a root
+ * label find it again until the page reloads. An empty snapshot means no tree
+ * was found.
+ */
+public class ExplorerSnapshot {
+
+    static final String HANDLE_ATTRIBUTE = "data-uiv-handle";
+
+    // CSS selector of the explorer's container, for trees without ARIA roles
+    private static final String CONTAINER = System.getProperty("explorer.container");
+
+    private static final String SCRIPT =
+            // own text of an element (first non-blank text node, not the text of child badges), whitespace
+            // collapsed: the text //span[normalize-space(text())='...'] matches
+            "var ownText = function(e) {"
+            + "  for (var t = e.firstChild; t !== null; t = t.nextSibling) {"
+            + "    if (t.nodeType === 3 && t.textContent.trim() !== '') return t.textContent.replace(/\\s+/g, ' ').trim();"
+            + "  }"
+            + "  return ''; };"
+            + "var items = document.querySelectorAll('[role=\"treeitem\"]');"
+            + "var aria = items.length > 0;"
+            + "var container = null;"
+            + "if (!aria) {"
+            + "  container = arguments[0] ? document.querySelector(arguments[0]) : null;"
+            + "  if (container === null) container = document.querySelector('[data-uiv-explorer]');"
+            + "  if (container === null && arguments[1]) {"
+            + "    var spans = document.getElementsByTagName('span');"
+            + "    for (var s = 0; s < spans.length && container === null; s++) {"
+            + "      if (ownText(spans[s]) !== arguments[1]) continue;"
+            + "      for (var u = spans[s].parentElement; u !== null; u = u.parentElement) if (u.tagName === 'UL') container = u;"
+            + "      if (container !== null) container.setAttribute('data-uiv-explorer', 'true');"
+            + "    }"
+            + "  }"
+            + "  if (container === null) return [];"
+            + "  items = container.querySelectorAll('li');"
+            + "}"
+            + "var isItem = function(e) { return aria ? e.getAttribute('role') === 'treeitem' : e.tagName === 'LI'; };"
+            + "var isGroup = function(e) { return e !== null && (e.getAttribute('role') === 'group' || e.tagName === 'UL'); };"
+            // label element: first element with its own text that is not inside a nested item or group
+            + "var labelOf = function(item) {"
+            + "  var walker = document.createTreeWalker(item, NodeFilter.SHOW_ELEMENT, {acceptNode: function(e) {"
+            + "    if (e !== item && (isItem(e) || isGroup(e))) return NodeFilter.FILTER_REJECT;"
+            + "    return NodeFilter.FILTER_ACCEPT; }});"
+            + "  for (var e = walker.nextNode(); e !== null; e = walker.nextNode()) if (ownText(e) !== '') return e;"
+            + "  return null; };"
+            + "var result = [];"
+            + "for (var i = 0; i < items.length; i++) {"
+            + "  var item = items[i];"
+            + "  if (item.offsetParent === null) continue;" // hidden (collapsed parent)
+            + "  var label = labelOf(item);"
+            + "  if (label === null) continue;"
+            + "  var depth = 0;"
+            + "  for (var p = item.parentElement; p !== null && p !== container; p = p.parentElement) if (isItem(p)) depth++;"
+            + "  var children = 0;"
+            + "  var groups = item.querySelectorAll(aria ? '[role=\"group\"]' : 'ul');"
+            + "  for (var g = 0; g < groups.length; g++) {"
+            + "    if (groups[g].offsetParent === null) continue;"
+            + "    for (var k = groups[g].firstElementChild; k !== null; k = k.nextElementSibling) if (isItem(k)) children++;"
+            + "  }"
+            + "  var selected = item.getAttribute('aria-selected') === 'true';"
+            + "  var state = item.getAttribute('aria-expanded');"
+            + "  var expanded = state !== null ? state === 'true' : children > 0;"
+            + "  var expandable = state !== null || children > 0"
+            + "      || item.querySelector(aria ? '[role=\"group\"]' : 'ul') !== null;"
+            + "  var handle = label.getAttribute('" + HANDLE_ATTRIBUTE + "');"
+            + "  if (handle === null) {"
+            + "    window.__uivHandles = (window.__uivHandles || 0) + 1;"
+            + "    handle = String(window.__uivHandles);"
+            + "    label.setAttribute('" + HANDLE_ATTRIBUTE + "', handle);"
+            + "  }"
+            + "  result.push([ownText(label), depth, expanded, children, handle, selected, expandable]);"
+            + "}"
+            + "return result;";
+
+    // One rendered node
+    public static class TreeNode {
+        public final String label;
+        public final int depth;
+        public final boolean expanded;
+        public final boolean selected;
+        public final int children;
+        // a folder: has or can show children (aria-expanded, or a nested group)
+        public final boolean expandable;
+        public final String handle;
+        public final String path;   // e.g. "Data > Models > SampleModel"
+
+        TreeNode(String label, int depth, boolean expanded, boolean selected, int children, boolean expandable,
+                 String handle, String path) {
+            this.label = label;
+            this.depth = depth;
+            this.expanded = expanded;
+            this.selected = selected;
+            this.children = children;
+            this.expandable = expandable;
+            this.handle = handle;
+            this.path = path;
+        }
+
+        // Locator of the node's label element
+        public By locator() {
+            return By.cssSelector("[" + HANDLE_ATTRIBUTE + "='" + handle + "']");
+        }
+    }
+
+    private final List<TreeNode> nodes;
+    private final Map<String, TreeNode> byPath = new LinkedHashMap<>();
+
+    ExplorerSnapshot(List<TreeNode> nodes) {
+        this.nodes = nodes;
+        for (TreeNode node : nodes) byPath.putIfAbsent(node.path, node);
+    }
+
+    // Reads the rendered tree in one WebDriver command
+    public static ExplorerSnapshot take(WebDriver driver) {
+        return take(driver, null);
+    }
+
+    /**
+     * Reads the rendered tree; rootLabel (the first label of a path, may be null)
+     * locates the explorer container of a tree without ARIA roles.
+     */
+    public static ExplorerSnapshot take(WebDriver driver, String rootLabel) {
+        Object raw = ((JavascriptExecutor) driver).executeScript(SCRIPT, CONTAINER, rootLabel);
+        List<TreeNode> nodes = new ArrayList<>();
+        // labels of the current ancestors, by depth
+        List<String> ancestors = new ArrayList<>();
+        if (raw instanceof List) {
+            for (Object row : (List<?>) raw) {
+                List<?> values = (List<?>) row;
+                String label = (String) values.get(0);
+                int depth = ((Number) values.get(1)).intValue();
+                while (ancestors.size() > depth) ancestors.remove(ancestors.size() - 1);
+                while (ancestors.size() < depth) ancestors.add("?"); // parent not rendered
+                String parent = ancestors.isEmpty() ? null : String.join(" > ", ancestors);
+                int children = ((Number) values.get(3)).intValue();
+                nodes.add(new TreeNode(label, depth, Boolean.TRUE.equals(values.get(2)), Boolean.TRUE.equals(values.get(5)),
+                        children, children > 0 || Boolean.TRUE.equals(values.get(6)), (String) values.get(4),
+                        ExplorerTreeState.key(parent, label)));
+                ancestors.add(label);
+            }
+        }
+        return new ExplorerSnapshot(nodes);
+    }
+
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    public List<TreeNode> nodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    // Node at the path (labels from the root), null if it is not rendered
+    public TreeNode find(List<String> path) {
+        return byPath.get(String.join(" > ", path));
+    }
+
+    public TreeNode find(String pathKey) {
+        return byPath.get(pathKey);
+    }
+
+    // Labels of the rendered children of the node at the path, in display order
+    public List<String> childLabels(List<String> path) {
+        List<String> labels = new ArrayList<>();
+        for (TreeNode node : childNodes(path)) labels.add(node.label);
+        return labels;
+    }
+
+    // Rendered children of the node at the path, in display order
+    public List<TreeNode> childNodes(List<String> path) {
+        String prefix = String.join(" > ", path) + " > ";
+        List<TreeNode> children = new ArrayList<>();
+        for (TreeNode node : nodes) {
+            if (node.depth == path.size() && node.path.startsWith(prefix)) children.add(node);
+        }
+        return children;
+    }
+}
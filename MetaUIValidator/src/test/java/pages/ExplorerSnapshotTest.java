@@ -0,0 +1,77 @@
+package pages;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import validation.BrowserProfile;
+
+/**
+ * ExplorerSnapshot on small static trees in headless Chrome: a label is its
+ * element's own text with whitespace collapsed, as //span[normalize-space(text())]
+ * sees it, so count badges and icons inside the label do not change it. Skipped
+ * when Chrome cannot be started.
+ */
+public class ExplorerSnapshotTest {
+
+    private WebDriver driver;
+
+    @BeforeClass
+    public void startBrowser() {
+        try {
+            driver = new ChromeDriver(BrowserProfile.LEAN.options());
+        } catch (RuntimeException e) {
+            throw new SkipException("Chrome not available: " + e.getMessage());
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void quitBrowser() {
+        if (driver != null) driver.quit();
+    }
+
+    private void load(String body) {
+        String html = "<html><body>" + body + "</body></html>";
+        driver.get("data:text/html;charset=utf-8,"
+                + URLEncoder.encode(html, StandardCharsets.UTF_8).replace("+", "%20"));
+    }
+
+    @Test
+    public void ariaLabelsWithChildElements() {
+        load("<ul role='tree'><li role='treeitem' aria-expanded='true'><span><i>folder</i>Data</span>"
+                + "<ul role='group'>"
+                + "<li role='treeitem'><span>Customer<span class='badge'>3</span></span></li>"
+                + "<li role='treeitem'><span>  Sample \n  Model </span></li>"
+                + "</ul></li></ul>");
+        ExplorerSnapshot snapshot = ExplorerSnapshot.take(driver, "Data");
+        assertNotNull(snapshot.find(Arrays.asList("Data", "Customer")));
+        assertEquals(snapshot.childLabels(Arrays.asList("Data")), Arrays.asList("Customer", "Sample Model"));
+    }
+
+    @Test
+    public void nonAriaLabelsWithChildElements() {
+        load("<nav><ul><li><span>Help</span></li><li><span>Settings</span></li></ul></nav>"
+                + "<div><ul><li><span>Data</span><ul>"
+                + "<li><span>Customer<span class='badge'>3</span></span></li>"
+                + "<li><span>Sample   Model<b>new</b></span></li>"
+                + "</ul></li></ul></div>");
+        ExplorerSnapshot snapshot = ExplorerSnapshot.take(driver, "Data");
+        assertEquals(snapshot.nodes().size(), 3, "menu entries must not be read as tree nodes");
+        assertEquals(snapshot.childLabels(Arrays.asList("Data")), Arrays.asList("Customer", "Sample Model"));
+
+        // the page navigates the same path the label lookup would
+        ExplorerSnapshot expanded = new ProjectExplorerPage(driver).expand(Arrays.asList("Data"));
+        assertNotNull(expanded);
+        assertNotNull(expanded.find(Arrays.asList("Data", "Customer")));
+    }
+}
@@ -0,0 +1,97 @@
+package pages;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Model of the Project Explorer tree: which nodes are expanded and which one
+ * is selected. Nodes are identified by their path from the root, e.g.
+ * "Data > Models > SampleModel".
+ *
+ * A click selects the node and toggles it; collapsing a node hides its
+ * subtree, whose nodes are shown collapsed when it is opened again. In
+ * single-branch mode (-Dexplorer.singleBranch=true, for an explorer that works
+ * like an accordion) expanding a node also collapses its expanded siblings.
+ */
+class ExplorerTreeState {
+
+    static final boolean SINGLE_BRANCH = Boolean.getBoolean("explorer.singleBranch");
+
+    private final Set<String> expanded = new HashSet<>();
+    private final boolean singleBranch;
+    private String selected;
+
+    ExplorerTreeState() {
+        this(SINGLE_BRANCH);
+    }
+
+    ExplorerTreeState(boolean singleBranch) {
+        this.singleBranch = singleBranch;
+    }
+
+    static String key(String parentKey, String label) {
+        return parentKey == null ? label : parentKey + " > " + label;
+    }
+
+    // Ancestors need a click unless expanded, the target unless selected
+    boolean needsClick(String key, boolean target) {
+        return target ? !key.equals(selected) : !expanded.contains(key);
+    }
+
+    void clicked(String key) {
+        selected = key;
+        if (expanded.contains(key)) {
+            collapse(key);
+            return;
+        }
+        if (singleBranch) {
+            String parent = parent(key);
+            for (String open : new ArrayList<>(expanded)) {
+                boolean sibling = open.startsWith(parent) && open.indexOf(" > ", parent.length()) < 0;
+                if (sibling && !open.equals(key) && expanded.contains(open)) {
+                    collapse(open);
+                }
+            }
+        }
+        expanded.add(key);
+    }
+
+    // "Data > Models > SampleModel" -> "Data > Models > " ("" for a root node)
+    private static String parent(String key) {
+        int i = key.lastIndexOf(" > ");
+        return i < 0 ? "" : key.substring(0, i + 3);
+    }
+
+    // The click failed, so the node's state is unknown and it is clicked again next time
+    void failed(String key) {
+        collapse(key);
+        selected = null;
+    }
+
+    void reset() {
+        expanded.clear();
+        selected = null;
+    }
+
+    // Clicks navigating to the path takes from the current state; the state is updated as if they were sent
+    int navigate(List<String> path) {
+        int clicks = 0;
+        String key = null;
+        for (int i = 0; i < path.size(); i++) {
+            key = key(key, path.get(i));
+            if (needsClick(key, i == path.size() - 1)) {
+                clicked(key);
+                clicks++;
+            }
+        }
+        return clicks;
+    }
+
+    private void collapse(String key) {
+        expanded.remove(key);
+        expanded.removeIf(path -> path.startsWith(key + " > "));
+        if (selected != null && selected.startsWith(key + " > ")) selected = null;
+    }
+}
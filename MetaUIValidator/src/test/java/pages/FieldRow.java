@@ -0,0 +1,24 @@
+package pages;
+
+/*
+ * One row of a details-panel table: an entity field or a flow input.
+ * type is the selected data type and pk the Primary Key checkbox; either is
+ * null when the row has no such control (flow inputs have no PK).
+ */
+public class FieldRow {
+
+    public final String name;
+    public final String type;
+    public final Boolean pk;
+
+    public FieldRow(String name, String type, Boolean pk) {
+        this.name = name;
+        this.type = type;
+        this.pk = pk;
+    }
+
+    @Override
+    public String toString() {
+        return name + " [" + type + (pk == null ? "" : ", pk=" + pk) + "]";
+    }
+}
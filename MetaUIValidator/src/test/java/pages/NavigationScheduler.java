@@ -0,0 +1,80 @@
+package pages;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import utils.JsonParserUtil;
+import utils.ProjectModel;
+
+/*
+ * Orders resources as a depth-first walk of the explorer tree, so resources
+ * sharing ancestors are visited one after another and every ancestor is
+ * expanded once. Siblings keep the order in which the export lists them.
+ */
+public class NavigationScheduler {
+
+    // One node of the explorer tree built from the resources' paths
+    private static final class Node<R> {
+        final Map<String, Node<R>> children = new LinkedHashMap<>();
+        final List<R> resources = new ArrayList<>();
+    }
+
+    /**
+     * Returns the resources in depth-first order of their explorer paths and prints
+     * how many clicks that order takes compared with the export's order.
+     */
+    public static <R> List<R> depthFirst(List<R> resources, Function<R, List<String>> pathOf, String type) {
+        Node<R> root = new Node<>();
+        List<List<String>> jsonOrder = new ArrayList<>();
+        for (R resource : resources) {
+            List<String> path = pathOf.apply(resource);
+            jsonOrder.add(path);
+            Node<R> node = root;
+            for (String label : path) node = node.children.computeIfAbsent(label, l -> new Node<>());
+            node.resources.add(resource);
+        }
+        List<R> ordered = new ArrayList<>(resources.size());
+        walk(root, ordered);
+
+        List<List<String>> dfsOrder = new ArrayList<>();
+        for (R resource : ordered) dfsOrder.add(pathOf.apply(resource));
+        int fullPaths = 0;
+        for (List<String> path : jsonOrder) fullPaths += path.size();
+        int json = countClicks(jsonOrder, ExplorerTreeState.SINGLE_BRANCH);
+        int dfs = countClicks(dfsOrder, ExplorerTreeState.SINGLE_BRANCH);
+        System.out.println("Navigation plan " + type + ": " + resources.size() + " resources | "
+                + fullPaths + " clicks clicking every full path | " + json + " in export order | "
+                + dfs + " depth-first (saves " + (json - dfs) + ")"
+                + (ExplorerTreeState.SINGLE_BRANCH ? " | single-branch explorer" : ""));
+        return ordered;
+    }
+
+    /**
+     * Clicks navigatePath sends for the paths in this order, starting from a collapsed
+     * tree. With an explorer that keeps nodes open, the order only matters once nodes
+     * get collapsed; with a single-branch explorer every branch switch costs clicks.
+     */
+    public static int countClicks(List<List<String>> paths, boolean singleBranch) {
+        ExplorerTreeState tree = new ExplorerTreeState(singleBranch);
+        int clicks = 0;
+        for (List<String> path : paths) clicks += tree.navigate(path);
+        return clicks;
+    }
+
+    // Prints the navigation plans for an export: java ... pages.NavigationScheduler <export.json>
+    public static void main(String[] args) {
+        ProjectModel model = JsonParserUtil.getProjectModel(args[0]);
+        depthFirst(model.getEntities(), r -> ExplorerPaths.pathOf(model, r), "entities");
+        depthFirst(model.getEnumerations(), r -> ExplorerPaths.pathOf(model, r), "enumerations");
+        depthFirst(model.getFlows(), r -> ExplorerPaths.pathOf(model, r), "flows");
+        depthFirst(model.getFileFolders(), r -> ExplorerPaths.pathOf(model, r), "fileFolders");
+    }
+
+    private static <R> void walk(Node<R> node, List<R> out) {
+        out.addAll(node.resources);
+        for (Node<R> child : node.children.values()) walk(child, out);
+    }
+}
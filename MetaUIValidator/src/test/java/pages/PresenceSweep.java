@@ -0,0 +1,106 @@
+package pages;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/*
+ * Checks which resources exist in the explorer without opening them.
+ *
+ * The resources are grouped by the explorer folder their path ends in (e.g.
+ * Data > Models > SampleModel > Structures). Every folder is expanded once and
+ * its child labels are read from one ExplorerSnapshot, then compared as a set
+ * with the resources the export places there:
+ *   - missing:    in the export, not shown in the folder
+ *   - unexpected: shown in the folder, not in the export at all: labels the
+ *                 export places there as another type or package (see
+ *                 ExplorerPaths.childLabels), and nodes that are folders
+ *                 themselves, are not reported
+ * A folder that is not in the explorer makes all of its resources missing, and
+ * no per-resource click or implicit wait is spent on any of them.
+ */
+public class PresenceSweep {
+
+    public static class Result<R> {
+        public final List<R> present = new ArrayList<>();
+        public final List<R> missing = new ArrayList<>();
+        // folder path -> labels the export does not have there
+        public final Map<String, List<String>> unexpected = new LinkedHashMap<>();
+        public int folders;
+
+        private final Set<R> absent = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        public boolean isMissing(R resource) {
+            return absent.contains(resource);
+        }
+
+        private void missing(R resource) {
+            missing.add(resource);
+            absent.add(resource);
+        }
+    }
+
+    /**
+     * Sweeps the folders of the resources, in the order they first appear (pass
+     * them depth-first, see NavigationScheduler). Returns null if the explorer tree
+     * cannot be read in bulk, so the caller falls back to navigating each resource.
+     */
+    public static <R> Result<R> run(ProjectExplorerPage explorer, List<R> resources,
+                                    Function<R, List<String>> pathOf, Map<List<String>, Set<String>> known,
+                                    String type) {
+        long start = System.nanoTime();
+        // folder path -> label -> resources with that label
+        Map<List<String>, Map<String, List<R>>> folders = new LinkedHashMap<>();
+        for (R resource : resources) {
+            List<String> path = pathOf.apply(resource);
+            List<String> folder = new ArrayList<>(path.subList(0, path.size() - 1));
+            folders.computeIfAbsent(folder, f -> new LinkedHashMap<>())
+                    .computeIfAbsent(path.get(path.size() - 1), l -> new ArrayList<>()).add(resource);
+        }
+
+        Result<R> result = new Result<>();
+        for (Map.Entry<List<String>, Map<String, List<R>>> folder : folders.entrySet()) {
+            String folderName = String.join(" > ", folder.getKey());
+            Map<String, List<R>> expected = folder.getValue();
+            Set<String> shown = new LinkedHashSet<>();
+            Set<String> subfolders = new HashSet<>();
+            try {
+                ExplorerSnapshot snapshot = explorer.expand(folder.getKey());
+                if (snapshot == null) return null;
+                for (ExplorerSnapshot.TreeNode node : snapshot.childNodes(folder.getKey())) {
+                    shown.add(node.label);
+                    if (node.expandable) subfolders.add(node.label);
+                }
+            } catch (RuntimeException e) {
+                System.out.println("Presence sweep: folder " + folderName + " not found | " + e.getMessage());
+            }
+            Set<String> others = known.getOrDefault(folder.getKey(), Collections.<String>emptySet());
+            result.folders++;
+            for (Map.Entry<String, List<R>> label : expected.entrySet()) {
+                for (R resource : label.getValue()) {
+                    if (shown.contains(label.getKey())) result.present.add(resource);
+                    else result.missing(resource);
+                }
+            }
+            for (String label : shown) {
+                if (!expected.containsKey(label) && !others.contains(label) && !subfolders.contains(label)) {
+                    result.unexpected.computeIfAbsent(folderName, f -> new ArrayList<>()).add(label);
+                }
+            }
+        }
+
+        int unexpected = 0;
+        for (List<String> labels : result.unexpected.values()) unexpected += labels.size();
+        System.out.println("Presence sweep " + type + ": " + result.folders + " folders | " + result.present.size()
+                + " present | " + result.missing.size() + " missing | " + unexpected + " unexpected | "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return result;
+    }
+}
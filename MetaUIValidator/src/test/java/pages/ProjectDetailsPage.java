@@ -1,12 +1,19 @@
 package pages;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.Select;
 
+import utils.Fingerprint;
+
 /**
  * This class reads details from the right-side panel of the UI for:
  *  1. Structures (Entities)
@@ -15,22 +22,257 @@ import org.openqa.selenium.support.ui.Select;
  *  4. Virtual Folders
  *
  * These returned details will later be compared with values parsed from JSON.
+ *
+ * The read...Details() methods return the whole panel from one executeScript
+ * call (DetailsPanel); the getters below read it element by element.
  */
 public class ProjectDetailsPage {
 
+    //Provide actual xpaths of the elements from the DOM (used by the getters and by the single-call read)
+    static final String NAME = "//input[@aria-label='Name' or @id='name']";
+    static final String FIELD_NAMES = "//td[@data-field='name'] | //div[@class='field-name']";
+    static final String FIELD_TYPES = "//select[@data-field='type']";
+    static final String PK_CHECKBOXES = "//td[contains(@class, 'pk')]//input[@type='checkbox']";
+    static final String ENUM_LITERALS = "//td[@data-field='constant'] | //div[@class='enum-literal']";
+    static final String FLOW_INPUT_NAMES = "//td[@data-field='inputName'] | //div[@class='flow-input-name']";
+    static final String FLOW_INPUT_TYPES = "//select[@data-field='inputType']";
+    static final String FOLDER_NAME = "//input[@aria-label='Name' or @id='folderName' or @id='name']";
+    static final String FOLDER_LOCATION = "//input[@aria-label='Location' or @id='location']";
+    static final String CITIZEN_TOOL = "//input[@type='checkbox' and @aria-label='Citizen Tool Enabled']";
+
+    // Table row of a field / input name cell, and the controls inside that row
+    static final String ROW_OF_CELL = "./ancestor::*[self::tr or @role='row'][1]";
+    static final String ROW_FIELD_TYPE = ".//select[@data-field='type']";
+    static final String ROW_PK = ".//td[contains(@class, 'pk')]//input[@type='checkbox']";
+    static final String ROW_INPUT_TYPE = ".//select[@data-field='inputType']";
+
+    /*
+     * Reads the details panel in one executeScript call. arguments[0] maps a key to
+     * [xpath, how to read each match, ...]: text (rendered text), value (input
+     * value), selected (text of the selected option, empty ones skipped), checked
+     * (checked or aria-checked), or row: [name, type, pk] of the table row of each
+     * name cell, with the type and pk controls found by the relative xpaths given
+     * after "row" (null where the row has none). Returns key -> list of values,
+     * in document order.
+     */
+    private static final String PANEL_SCRIPT =
+            "var spec = arguments[0], out = {};"
+            + "var all = function(xpath, context) {"
+            + "  var found = document.evaluate(xpath, context, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), list = [];"
+            + "  for (var i = 0; i < found.snapshotLength; i++) list.push(found.snapshotItem(i));"
+            + "  return list; };"
+            + "var text = function(e) { return (e.innerText || e.textContent || '').trim(); };"
+            + "var selected = function(e) {"
+            + "  var option = e.selectedOptions && e.selectedOptions.length > 0 ? e.selectedOptions[0] : null;"
+            + "  return option === null ? '' : text(option); };"
+            + "var checked = function(e) { return e.checked === true || String(e.getAttribute('aria-checked')).toLowerCase() === 'true'; };"
+            + "for (var key in spec) {"
+            + "  var how = spec[key][1], values = [];"
+            + "  all(spec[key][0], document).forEach(function(e) {"
+            + "    if (how === 'text') values.push(text(e));"
+            + "    else if (how === 'value') values.push((e.value || '').trim());"
+            + "    else if (how === 'selected') { var s = selected(e); if (s !== '') values.push(s); }"
+            + "    else if (how === 'checked') values.push(checked(e));"
+            + "    else {"
+            + "      var row = e.closest('tr, [role=\"row\"]') || e.parentElement;"
+            + "      var type = spec[key][2] ? all(spec[key][2], row) : [], pk = spec[key][3] ? all(spec[key][3], row) : [];"
+            + "      var t = type.length > 0 ? selected(type[0]) : '';"
+            + "      values.push([text(e), t === '' ? null : t, pk.length > 0 ? checked(pk[0]) : null]);"
+            + "    }"
+            + "  });"
+            + "  out[key] = values;"
+            + "}"
+            + "return out;";
+
+    /*
+     * Fingerprint of the panel (see utils.Fingerprint): reads it with PANEL_SCRIPT,
+     * builds the canonical text from the kind (arguments[1]) and the row lists
+     * named in arguments[2], and returns only its hash (null if there is no name).
+     */
+    private static final String FINGERPRINT_SCRIPT =
+            "var panel = (function() {" + PANEL_SCRIPT + "}).apply(null, arguments);"
+            + "if (!panel.name || panel.name.length === 0) return null;"
+            + "var lists = arguments[2].map(function(key) { return panel[key] || []; });"
+            + "return (" + Fingerprint.HASH_FUNCTION + ")((" + Fingerprint.CANONICAL_FUNCTION + ")"
+            + "(arguments[1], panel.name[0], lists));";
+
+    // -Ddetails.singleCall=false reads the panel with the per-element getters below
+    private static final boolean SINGLE_CALL = Boolean.parseBoolean(System.getProperty("details.singleCall", "true"));
+
     WebDriver driver;
 
     public ProjectDetailsPage(WebDriver driver) {
         this.driver = driver;
     }
 
+    /**
+     * Name and field rows (name, selected data type, PK state) of the opened entity.
+     * One WebDriver command instead of several per field row. The type and PK are
+     * read from the row of each name cell, so a row without a dropdown does not
+     * shift the rows after it.
+     */
+    public DetailsPanel readEntityDetails() {
+        DetailsPanel panel = new DetailsPanel();
+        if (!SINGLE_CALL) {
+            panel.name = getEntityName();
+            panel.fields = getUIFieldRows();
+            return panel;
+        }
+        Map<String, List<Object>> values = readPanel(
+                "name", NAME, "value",
+                "fields", FIELD_NAMES, "row", ROW_FIELD_TYPE, ROW_PK);
+        panel.name = first(values, "name", "Failed to locate Entity name field.");
+        panel.fields = rows(values, "fields");
+        return panel;
+    }
+
+    // Name and literals of the opened enumeration, in one call
+    public DetailsPanel readEnumDetails() {
+        DetailsPanel panel = new DetailsPanel();
+        if (!SINGLE_CALL) {
+            panel.name = getEnumName();
+            panel.literals = getUIEnumLiterals();
+            return panel;
+        }
+        Map<String, List<Object>> values = readPanel(
+                "name", NAME, "value",
+                "literals", ENUM_LITERALS, "text");
+        panel.name = first(values, "name", "Failed to locate Enumeration name field.");
+        panel.literals = strings(values, "literals");
+        return panel;
+    }
+
+    // Name and input rows (name, selected data type) of the opened flow, in one call
+    public DetailsPanel readFlowDetails() {
+        DetailsPanel panel = new DetailsPanel();
+        if (!SINGLE_CALL) {
+            panel.name = getFlowName();
+            panel.inputs = getUIFlowInputRows();
+            return panel;
+        }
+        Map<String, List<Object>> values = readPanel(
+                "name", NAME, "value",
+                "inputs", FLOW_INPUT_NAMES, "row", ROW_INPUT_TYPE, null);
+        panel.name = first(values, "name", "Failed to locate Flow name field.");
+        panel.inputs = rows(values, "inputs");
+        return panel;
+    }
+
+    // Name, location and Citizen Tool flag of the opened virtual folder, in one call
+    public DetailsPanel readFolderDetails() {
+        DetailsPanel panel = new DetailsPanel();
+        if (!SINGLE_CALL) {
+            panel.name = getFolderName();
+            panel.location = getUIFolderLocation();
+            panel.citizenToolEnabled = isUICitizenToolEnabled();
+            return panel;
+        }
+        Map<String, List<Object>> values = readPanel(
+                "name", FOLDER_NAME, "value",
+                "location", FOLDER_LOCATION, "value",
+                "citizenTool", CITIZEN_TOOL, "checked");
+        panel.name = first(values, "name", "Failed to locate Folder name field.");
+        panel.location = first(values, "location", "Failed to locate Folder Location field.");
+        panel.citizenToolEnabled = Boolean.TRUE.equals(first(values, "citizenTool", "Failed to locate Citizen Tool checkbox."));
+        return panel;
+    }
+
+    /**
+     * Fingerprints of the opened resource, computed in the page from what the
+     * panel shows: one WebDriver command returning 16 hex characters. Equal to
+     * utils.Fingerprint.of(resource) when UI and export agree; null if the panel
+     * shows no name.
+     */
+    public String fingerprintEntity() {
+        return fingerprint("E", Arrays.asList("fields"),
+                "name", NAME, "value",
+                "fields", FIELD_NAMES, "row", ROW_FIELD_TYPE, ROW_PK);
+    }
+
+    public String fingerprintEnum() {
+        return fingerprint("N", Arrays.asList("literals"),
+                "name", NAME, "value",
+                "literals", ENUM_LITERALS, "text");
+    }
+
+    public String fingerprintFlow() {
+        return fingerprint("F", Arrays.asList("inputs"),
+                "name", NAME, "value",
+                "inputs", FLOW_INPUT_NAMES, "row", ROW_INPUT_TYPE, null);
+    }
+
+    public String fingerprintFolder() {
+        return fingerprint("V", Arrays.asList("location", "citizenTool"),
+                "name", FOLDER_NAME, "value",
+                "location", FOLDER_LOCATION, "value",
+                "citizenTool", CITIZEN_TOOL, "checked");
+    }
+
+    private String fingerprint(String kind, List<String> rowLists, String... spec) {
+        try {
+            return (String) ((JavascriptExecutor) driver).executeScript(FINGERPRINT_SCRIPT, spec(spec), kind, rowLists);
+        } catch (Exception e) {
+            System.out.println("Unable to fingerprint details panel: " + e.getMessage());
+            throw new RuntimeException("Failed to fingerprint details panel.", e);
+        }
+    }
+
+    // (key, xpath, how) triples as the PANEL_SCRIPT argument; "row" takes the type and pk xpaths as two more values
+    private static Map<String, List<String>> spec(String... spec) {
+        Map<String, List<String>> arg = new LinkedHashMap<>();
+        for (int i = 0; i < spec.length; i += 3) {
+            if ("row".equals(spec[i + 2])) {
+                arg.put(spec[i], Arrays.asList(spec[i + 1], spec[i + 2], spec[i + 3], spec[i + 4]));
+                i += 2;
+            } else {
+                arg.put(spec[i], Arrays.asList(spec[i + 1], spec[i + 2]));
+            }
+        }
+        return arg;
+    }
+
+    // Runs PANEL_SCRIPT for (key, xpath, how) triples
+    @SuppressWarnings("unchecked")
+    private Map<String, List<Object>> readPanel(String... spec) {
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(PANEL_SCRIPT, spec(spec));
+            if (!(result instanceof Map)) throw new RuntimeException("Unexpected script result: " + result);
+            return (Map<String, List<Object>>) result;
+        } catch (Exception e) {
+            System.out.println("Unable to read details panel: " + e.getMessage());
+            throw new RuntimeException("Failed to read details panel.", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T first(Map<String, List<Object>> values, String key, String failure) {
+        List<Object> list = values.get(key);
+        if (list == null || list.isEmpty()) throw new RuntimeException(failure);
+        return (T) list.get(0);
+    }
+
+    private static List<String> strings(Map<String, List<Object>> values, String key) {
+        List<String> list = new ArrayList<>();
+        for (Object value : values.getOrDefault(key, Collections.emptyList())) list.add((String) value);
+        return list;
+    }
+
+    private static List<FieldRow> rows(Map<String, List<Object>> values, String key) {
+        List<FieldRow> list = new ArrayList<>();
+        for (Object value : values.getOrDefault(key, Collections.emptyList())) {
+            List<?> row = (List<?>) value;
+            list.add(new FieldRow((String) row.get(0), (String) row.get(1), (Boolean) row.get(2)));
+        }
+        return list;
+    }
+
     //SAMPLESTRUCTURE
 
     // Get entity (SampleStrucuture) name from the Name text box.
     public String getEntityName() {
     	try {
     		//Provide actual xpath of the element from the DOM
-        WebElement nameField = driver.findElement(By.xpath("//input[@aria-label='Name' or @id='name']"));
+        WebElement nameField = driver.findElement(By.xpath(NAME));
         return nameField.getAttribute("value").trim();    
     	}
     	catch (Exception e) {
@@ -45,7 +287,7 @@ public class ProjectDetailsPage {
         try {
         //Provide actual xpath of the elements from the DOM
         List<WebElement> fieldElements = driver.findElements(
-                By.xpath("//td[@data-field='name'] | //div[@class='field-name']")
+                By.xpath(FIELD_NAMES)
         );
         if (fieldElements.isEmpty())
             throw new RuntimeException("No UI field names found.");
@@ -68,7 +310,7 @@ public class ProjectDetailsPage {
         try {
             // Locate all dropdown elements (assume all are <select>)
             List<WebElement> dropdownElements = driver.findElements(
-                By.xpath("//select[@data-field='type']"));//Provide actual xpath of the elements from the DOM
+                By.xpath(FIELD_TYPES));//Provide actual xpath of the elements from the DOM
             if (dropdownElements.isEmpty())
                 throw new RuntimeException("No data type dropdowns found.");
               //Iterate through each dropdown
@@ -101,7 +343,7 @@ public class ProjectDetailsPage {
         {
         //Provide actual xpath of the elements from the DOM
         List<WebElement> pkCheckboxes = driver.findElements(
-                By.xpath("//td[contains(@class, 'pk')]//input[@type='checkbox']"));
+                By.xpath(PK_CHECKBOXES));
         if (pkCheckboxes.isEmpty())
             throw new RuntimeException("No PK checkboxes found.");
         
@@ -121,6 +363,19 @@ public class ProjectDetailsPage {
     }
 
     
+    /**
+     * Get one row per field (name, selected data type, PK), reading the type and PK
+     * from the same table row as the name.
+     */
+    public List<FieldRow> getUIFieldRows() {
+        try {
+            return getRows(FIELD_NAMES, ROW_FIELD_TYPE, ROW_PK);
+        } catch (Exception e) {
+            System.out.println("Unable to get Field rows: " + e.getMessage());
+            throw new RuntimeException("Failed to get UI field rows.", e);
+        }
+    }
+
     //ENUMSAMPLE
    
     /**
@@ -129,7 +384,7 @@ public class ProjectDetailsPage {
     public String getEnumName() {
         try {
         	//Provide actual xpath of the element from the DOM
-            WebElement nameField = driver.findElement(By.xpath("//input[@aria-label='Name' or @id='name']"));
+            WebElement nameField = driver.findElement(By.xpath(NAME));
             return nameField.getAttribute("value").trim();
         } catch (Exception e) {
             System.out.println("Unable to get Enumeration name: " + e.getMessage());
@@ -145,7 +400,7 @@ public class ProjectDetailsPage {
         try {
         	//Provide actual xpath of the element from the DOM
             List<WebElement> literalElements = driver.findElements(
-                    By.xpath("//td[@data-field='constant'] | //div[@class='enum-literal']"));
+                    By.xpath(ENUM_LITERALS));
             if (literalElements.isEmpty())
                 throw new RuntimeException("No Enumeration literals found.");
             for (WebElement element : literalElements) {
@@ -167,7 +422,7 @@ public class ProjectDetailsPage {
     public String getFlowName() {
         try {
         	//Provide actual xpath of the element from the DOM
-            WebElement nameField = driver.findElement(By.xpath("//input[@aria-label='Name' or @id='name']"));
+            WebElement nameField = driver.findElement(By.xpath(NAME));
             return nameField.getAttribute("value").trim();
         } catch (Exception e) {
             System.out.println("Unable to get Flow name: " + e.getMessage());
@@ -183,7 +438,7 @@ public class ProjectDetailsPage {
         try {
         	//Provide actual xpath of the elements from the DOM
             List<WebElement> inputElements = driver.findElements(
-                    By.xpath("//td[@data-field='inputName'] | //div[@class='flow-input-name']"));
+                    By.xpath(FLOW_INPUT_NAMES));
            
             if (inputElements.isEmpty())
             throw new RuntimeException("No Flow input names found.");
@@ -207,7 +462,7 @@ public class ProjectDetailsPage {
 
         try {
             // Locate all dropdown <select> elements that define input types
-            List<WebElement> dropdownElements = driver.findElements(By.xpath("//select[@data-field='inputType']"));
+            List<WebElement> dropdownElements = driver.findElements(By.xpath(FLOW_INPUT_TYPES));
             
             if (dropdownElements.isEmpty())
                 throw new RuntimeException("No Flow input type dropdowns found.");
@@ -235,6 +490,42 @@ public class ProjectDetailsPage {
         return flowTypes;
     }
 
+    /**
+     * Get one row per flow input (name, selected data type).
+     */
+    public List<FieldRow> getUIFlowInputRows() {
+        try {
+            return getRows(FLOW_INPUT_NAMES, ROW_INPUT_TYPE, null);
+        } catch (Exception e) {
+            System.out.println("Unable to get Flow Input rows: " + e.getMessage());
+            throw new RuntimeException("Failed to get Flow Input rows.", e);
+        }
+    }
+
+    // Rows of the name cells, with the type dropdown and PK checkbox of each row (null if absent)
+    private List<FieldRow> getRows(String nameCells, String typeInRow, String pkInRow) {
+        List<FieldRow> rows = new ArrayList<>();
+        for (WebElement cell : driver.findElements(By.xpath(nameCells))) {
+            List<WebElement> row = cell.findElements(By.xpath(ROW_OF_CELL));
+            WebElement container = row.isEmpty() ? cell.findElement(By.xpath("..")) : row.get(0);
+            String type = null;
+            List<WebElement> dropdowns = container.findElements(By.xpath(typeInRow));
+            if (!dropdowns.isEmpty()) {
+                String selected = new Select(dropdowns.get(0)).getFirstSelectedOption().getText().trim();
+                if (!selected.isEmpty()) type = selected;
+            }
+            Boolean pk = null;
+            List<WebElement> checkboxes = pkInRow == null ? Collections.<WebElement>emptyList()
+                    : container.findElements(By.xpath(pkInRow));
+            if (!checkboxes.isEmpty()) {
+                WebElement checkbox = checkboxes.get(0);
+                pk = checkbox.isSelected() || "true".equalsIgnoreCase(checkbox.getAttribute("aria-checked"));
+            }
+            rows.add(new FieldRow(cell.getText().trim(), type, pk));
+        }
+        return rows;
+    }
+
     //VIRTUAL FOLDERS (VF1)
     
     /**
@@ -243,7 +534,7 @@ public class ProjectDetailsPage {
     public String getFolderName() {
         try {
         	//Provide actual xpath of the element from the DOM
-            WebElement nameField = driver.findElement(By.xpath("//input[@aria-label='Name' or @id='folderName' or @id='name']"));
+            WebElement nameField = driver.findElement(By.xpath(FOLDER_NAME));
             return nameField.getAttribute("value").trim();
         } catch (Exception e) {
             System.out.println("Unable to get Folder name: " + e.getMessage());
@@ -257,7 +548,7 @@ public class ProjectDetailsPage {
     public String getUIFolderLocation() {
         try {
         	//Provide actual xpath of the element from the DOM
-            WebElement locationField = driver.findElement(By.xpath("//input[@aria-label='Location' or @id='location']"));
+            WebElement locationField = driver.findElement(By.xpath(FOLDER_LOCATION));
             return locationField.getAttribute("value").trim();
         } catch (Exception e) {
             System.out.println("Folder location not found: " + e.getMessage());
@@ -272,7 +563,7 @@ public class ProjectDetailsPage {
         try {
         	//Provide actual xpath of the element from the DOM
             WebElement toggle = driver.findElement(
-                    By.xpath("//input[@type='checkbox' and @aria-label='Citizen Tool Enabled']")
+                    By.xpath(CITIZEN_TOOL)
             );
             return toggle.isSelected() ||
                     "true".equalsIgnoreCase(toggle.getAttribute("aria-checked"));
@@ -2,9 +2,13 @@ package pages;
 
 import java.util.List;
 import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 
+import utils.JsonParserUtil.Resource;
+import utils.ProjectModel;
+
 /*
  * This class helps navigate through the Project Explorer on the left side of the UI
  *
@@ -16,44 +20,217 @@ import org.openqa.selenium.WebElement;
  *
  * Example hierarchy:
  *   Data -> Models -> SampleModel -> Structures -> SampleStructure
+ *
+ * The page keeps a model of the explorer tree (which nodes are expanded and
+ * which one is selected), so navigatePath only clicks the part of a path that
+ * is not open yet. Call resetTreeState() after reloading the page.
  */
 public class ProjectExplorerPage {
 
     WebDriver driver;
 
+    // -Dexplorer.snapshot=false finds every node by label instead of reading the tree in one call
+    private static final boolean USE_SNAPSHOTS = Boolean.parseBoolean(System.getProperty("explorer.snapshot", "true"));
+
+    // Expanded and selected nodes, as far as this page has clicked them
+    private final ExplorerTreeState tree = new ExplorerTreeState();
+
+    private int clicks;
+    private int skippedClicks;
+
+    // Replaces the fixed sleep after every click
+    private final UiWaits waits;
+
     public ProjectExplorerPage(WebDriver driver) {
         this.driver = driver;
+        this.waits = new UiWaits(driver);
+    }
+
+    // Waits used by this page, with their recorded durations
+    public UiWaits getWaits() {
+        return waits;
     }
 
     /**
      * Generic method to click a single node in the Project Explorer.
+     * Returns once the click changed the page (see UiWaits.forMutation).
      * @param nodeName The visible text of the node.
      */
     public void clickNode(String nodeName) {
         try {
-            String xpath = "//span[normalize-space(text())='" + nodeName + "']";
-            WebElement element = driver.findElement(By.xpath(xpath));
-            element.click();
-            Thread.sleep(800); // short wait for UI to expand
-            System.out.println("Clicked: " + nodeName);
-        } catch (Exception e) {
+            long mutations = waits.mutationCount();
+            click(nodeName);
+            waits.forMutation(mutations);
+        } catch (RuntimeException e) {
             System.out.println("Could not click node: " + nodeName + " | " + e.getMessage());
             throw new RuntimeException("Failed to click node: " + nodeName, e);
         }
     }
 
+    private void click(String nodeName) {
+        String xpath = "//span[normalize-space(text())='" + nodeName + "']";
+        WebElement element = driver.findElement(By.xpath(xpath));
+        element.click();
+        System.out.println("Clicked: " + nodeName);
+    }
+
     /**
-     * Navigate through a list of node names one by one.
+     * Navigate through a list of node names one by one. Ancestors that are
+     * already expanded are not clicked again (a click would collapse them), and
+     * the last node is not clicked if it is already selected.
+     *
+     * The decisions are made on an ExplorerSnapshot of the rendered tree (one
+     * script call) and nodes are clicked through their snapshot handles. A node
+     * that is not in the tree fails at once, without an implicit wait. If the
+     * snapshot finds no tree, or a tree without the path's first node (so not
+     * the explorer), or -Dexplorer.snapshot=false, nodes are found by label and
+     * the page's own record of the tree state is used.
      */
     public void navigatePath(List<String> path) {
-        for (String step : path) {
-            clickNode(step);
+        ExplorerSnapshot snapshot = treeOf(path);
+        if (snapshot != null) {
+            navigate(snapshot, path, true);
+            return;
+        }
+        String key = null;
+        for (int i = 0; i < path.size(); i++) {
+            key = ExplorerTreeState.key(key, path.get(i));
+            boolean target = i == path.size() - 1;
+            if (!tree.needsClick(key, target)) {
+                skippedClicks++;
+                continue;
+            }
+            clickTreeNode(path.get(i), key, target ? null : path.get(i + 1));
         }
     }
 
+    /**
+     * Expands every node of the path, the last one included, and returns the
+     * snapshot showing its children. Returns null if no explorer tree is
+     * recognized (or -Dexplorer.snapshot=false). A folder that stays empty after
+     * expanding costs one wait timeout and is returned without children.
+     */
+    public ExplorerSnapshot expand(List<String> path) {
+        ExplorerSnapshot snapshot = treeOf(path);
+        return snapshot == null ? null : navigate(snapshot, path, false);
+    }
+
+    // Snapshot of the explorer tree the path starts in, null if none is recognized
+    private ExplorerSnapshot treeOf(List<String> path) {
+        if (!USE_SNAPSHOTS || path.isEmpty()) return null;
+        ExplorerSnapshot snapshot = ExplorerSnapshot.take(driver, path.get(0));
+        return snapshot.find(path.subList(0, 1)) == null ? null : snapshot;
+    }
+
+    // Walks the path on the snapshot; selects the last node, or only expands it
+    private ExplorerSnapshot navigate(ExplorerSnapshot snapshot, List<String> path, boolean select) {
+        for (int i = 0; i < path.size(); i++) {
+            String nodeName = path.get(i);
+            List<String> nodePath = path.subList(0, i + 1);
+            boolean target = select && i == path.size() - 1;
+            ExplorerSnapshot.TreeNode node = snapshot.find(nodePath);
+            if (node == null) {
+                String msg = "not in explorer" + (i > 0 ? " under " + String.join(" > ", path.subList(0, i)) : "");
+                System.out.println("Could not click node: " + nodeName + " | " + msg);
+                throw new RuntimeException("Failed to click node: " + nodeName + " | " + msg);
+            }
+            boolean open = target ? node.selected || !tree.needsClick(node.path, true) : node.expanded;
+            if (open) {
+                skippedClicks++;
+                continue;
+            }
+            try {
+                if (target) {
+                    UiWaits.Panel before = waits.armPanel();
+                    driver.findElement(node.locator()).click();
+                    waits.forPanel(before);
+                } else {
+                    driver.findElement(node.locator()).click();
+                    snapshot = expanded(nodePath, i + 1 < path.size() ? path.get(i + 1) : null);
+                }
+                System.out.println("Clicked: " + nodeName);
+                clicks++;
+            } catch (RuntimeException e) {
+                System.out.println("Could not click node: " + nodeName + " | " + e.getMessage());
+                tree.failed(node.path);
+                throw new RuntimeException("Failed to click node: " + nodeName, e);
+            }
+            tree.clicked(node.path);
+        }
+        return snapshot;
+    }
+
+    // Waits for the node to show its children; without a known child, an empty folder is returned as it is
+    private ExplorerSnapshot expanded(List<String> path, String child) {
+        try {
+            return waits.forExpanded(path, child);
+        } catch (TimeoutException e) {
+            if (child != null) throw e;
+            return ExplorerSnapshot.take(driver, path.get(0));
+        }
+    }
+
+    /*
+     * Clicks a node, waits for the transition and updates the tree model: the
+     * click selects the node and toggles it. An ancestor is done when its child
+     * nextLabel is shown, the target when the details panel shows it.
+     */
+    private void clickTreeNode(String nodeName, String key, String nextLabel) {
+        try {
+            if (nextLabel != null) {
+                click(nodeName);
+                waits.forNode(nextLabel);
+            } else {
+                UiWaits.Panel before = waits.armPanel();
+                click(nodeName);
+                waits.forPanel(before);
+            }
+            clicks++;
+        } catch (RuntimeException e) {
+            System.out.println("Could not click node: " + nodeName + " | " + e.getMessage());
+            tree.failed(key);
+            throw new RuntimeException("Failed to click node: " + nodeName, e);
+        }
+        tree.clicked(key);
+    }
+
+    // The rendered explorer tree, read in one call (empty if no tree was recognized)
+    public ExplorerSnapshot snapshot() {
+        return ExplorerSnapshot.take(driver);
+    }
+
+    /**
+     * Forgets the tree state, e.g. after a page reload collapsed the explorer.
+     */
+    public void resetTreeState() {
+        tree.reset();
+    }
+
+    // Clicks sent by navigatePath
+    public int getClickCount() {
+        return clicks;
+    }
+
+    // Clicks navigatePath avoided because the node was already expanded or selected
+    public int getSkippedClickCount() {
+        return skippedClicks;
+    }
+
+    /**
+     * Opens any resource of the export, using the explorer path derived from
+     * its $folderRef / $displayName (see ExplorerPaths).
+     */
+    public void open(ProjectModel model, Resource resource) {
+        List<String> path = ExplorerPaths.pathOf(model, resource);
+        navigatePath(path);
+        System.out.println("Opened: " + String.join(" > ", path));
+    }
+
     /**
      * Open SampleStructure/EnumSample
+     * @deprecated always goes through SampleModel; use open(model, resource)
      */
+    @Deprecated
     public void openStructEnum(String modelFolder, String modelName) {
     	//List of inner text of elements to be clicked is passed to navigatePath method
         navigatePath(List.of("Data", "Models","SampleModel",modelFolder,modelName));
@@ -62,7 +239,9 @@ public class ProjectExplorerPage {
 
     /**
      * Opens a ServerFlow
+     * @deprecated always opens ServerFlow; use open(model, resource)
      */
+    @Deprecated
     public void openFlow() {
     	//List of inner text of elements to be clicked is passed to navigatePath method
         navigatePath(List.of("Business Logic","Server Flows","Global Flows","ServerFlow"));
@@ -71,7 +250,9 @@ public class ProjectExplorerPage {
 
     /**
      * Opens a Virtual Folder (VF1)
+     * @deprecated always opens VF1; use open(model, resource)
      */
+    @Deprecated
     public void openVirtualFolder() {
     	//List of inner text of elements to be clicked is passed to navigatePath method
         navigatePath(List.of("Resources","Virtual Folders","VF1"));
@@ -0,0 +1,225 @@
+package pages;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.FluentWait;
+
+/*
+ * Condition-driven waits for explorer and details-panel transitions, used
+ * instead of fixed sleeps. Each wait polls a condition (every -Dui.pollMs,
+ * default 20 ms) until it holds or -Dui.waitTimeoutMs (default 10000) passes,
+ * and records how long it really took, so slow transitions show up in the
+ * summary instead of as flaky failures.
+ *
+ * Conditions:
+ *   - forNode:      a tree node with the given label is displayed (children appeared)
+ *   - forPanel:     the details panel the click asked for is rendered: the click
+ *                   changed the DOM, the Name input was re-rendered or changed
+ *                   (or, for a panel with the same name, the DOM stayed quiet for
+ *                   -Dui.settleMs, default 300), and the name and row count held
+ *                   still for one poll
+ *   - forMutation:  the DOM changed at all, seen by an injected MutationObserver
+ *   - forExpanded:  an explorer node is expanded in a fresh ExplorerSnapshot
+ */
+public class UiWaits {
+
+    // Name input of the details panel (entities, enumerations, flows, folders)
+    static final String NAME_INPUT = "//input[@aria-label='Name' or @id='folderName' or @id='name']";
+
+    private static final Duration TIMEOUT = Duration.ofMillis(Long.getLong("ui.waitTimeoutMs", 10000));
+    private static final Duration POLL = Duration.ofMillis(Long.getLong("ui.pollMs", 20));
+    private static final long SETTLE_NANOS = Duration.ofMillis(Long.getLong("ui.settleMs", 300)).toNanos();
+
+    // Counts DOM mutations in window.__uiMutations (installed once per page) and returns the count
+    private static final String MUTATION_COUNTER =
+            "if (!window.__uiMutations) {"
+            + "  window.__uiMutations = {count: 0};"
+            + "  window.__uiMutations.observer = new MutationObserver(function(m) { window.__uiMutations.count += m.length; });"
+            + "  window.__uiMutations.observer"
+            + "      .observe(document.body, {childList: true, subtree: true, attributes: true, characterData: true});"
+            + "}"
+            + "return window.__uiMutations.count;";
+
+    // The details Name input and the number of field, literal and input rows shown
+    private static final String PANEL =
+            "var find = function(xpath) {"
+            + "  return document.evaluate(xpath, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null); };"
+            + "var names = find(\"" + NAME_INPUT + "\");"
+            + "var name = names.snapshotLength > 0 ? names.snapshotItem(0) : null;"
+            + "var rows = find(\"" + ProjectDetailsPage.FIELD_NAMES + " | " + ProjectDetailsPage.ENUM_LITERALS
+            + " | " + ProjectDetailsPage.FLOW_INPUT_NAMES + "\").snapshotLength;";
+
+    // Arms the MutationObserver and marks the current Name input (not counted as a change): [mutation count, name]
+    private static final String ARM_PANEL =
+            PANEL
+            + "(function() {" + MUTATION_COUNTER + "})();"
+            + "if (name !== null) name.setAttribute('data-uiv-stale', 'true');"
+            + "window.__uiMutations.observer.takeRecords();"
+            + "return [window.__uiMutations.count, name === null ? null : name.value.trim()];";
+
+    // [mutation count (-1 after a reload), name, rows, Name input still the marked one]
+    private static final String PANEL_STATE =
+            PANEL
+            + "return [window.__uiMutations ? window.__uiMutations.count : -1, name === null ? null : name.value.trim(),"
+            + "    rows, name !== null && name.getAttribute('data-uiv-stale') === 'true'];";
+
+    // The details panel before a click, from armPanel()
+    public static final class Panel {
+        final long mutations;
+        final String name;
+
+        Panel(long mutations, String name) {
+            this.mutations = mutations;
+            this.name = name;
+        }
+    }
+
+    private final WebDriver driver;
+    // wait kind -> durations in ms, in the order they happened
+    private final Map<String, List<Long>> durations = new LinkedHashMap<>();
+
+    public UiWaits(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Waits until the condition returns a non-null, non-false value and records the
+     * duration under the given kind. Throws TimeoutException if it never does.
+     */
+    public <T> T until(String kind, Function<WebDriver, T> condition) {
+        // implicit waits would block every poll that finds nothing, so they are off while polling
+        Duration implicit = driver.manage().timeouts().getImplicitWaitTimeout();
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        try {
+            return poll(kind, condition);
+        } finally {
+            driver.manage().timeouts().implicitlyWait(implicit);
+        }
+    }
+
+    /**
+     * Like until, but leaves the implicit wait alone: for conditions that only run
+     * scripts (no findElement), which saves the commands switching it off and on.
+     */
+    public <T> T poll(String kind, Function<WebDriver, T> condition) {
+        long start = System.nanoTime();
+        try {
+            return new FluentWait<>(driver)
+                    .withTimeout(TIMEOUT)
+                    .pollingEvery(POLL)
+                    .ignoring(NoSuchElementException.class)
+                    .ignoring(StaleElementReferenceException.class)
+                    .withMessage("waiting for " + kind)
+                    .until(condition);
+        } finally {
+            record(kind, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    // Waits until a tree node with the label is displayed
+    public void forNode(String label) {
+        By node = By.xpath("//span[normalize-space(text())='" + label + "']");
+        until("node visible", d -> {
+            for (WebElement element : d.findElements(node)) {
+                if (element.isDisplayed()) return true;
+            }
+            return false;
+        });
+    }
+
+    // Call right before clicking a resource: the panel as it is, for forPanel
+    public Panel armPanel() {
+        List<?> state = (List<?>) ((JavascriptExecutor) driver).executeScript(ARM_PANEL);
+        return new Panel(((Number) state.get(0)).longValue(), (String) state.get(1));
+    }
+
+    /**
+     * Waits until the click after armPanel() rendered its details panel. A Name
+     * input equal to the one before only counts once the DOM has been quiet for
+     * -Dui.settleMs (same-named resources, a click on the open resource). One
+     * executeScript per poll.
+     */
+    public void forPanel(Panel before) {
+        String[] last = {null};
+        long[] quietSince = {0};
+        poll("details loaded", d -> {
+            List<?> state = (List<?>) ((JavascriptExecutor) d).executeScript(PANEL_STATE);
+            long mutations = ((Number) state.get(0)).longValue();
+            String name = (String) state.get(1);
+            long now = System.nanoTime();
+            String seen = mutations + "|" + name + "|" + state.get(2);
+            if (!seen.equals(last[0])) {
+                // still changing: wait for one quiet poll
+                last[0] = seen;
+                quietSince[0] = now;
+                return false;
+            }
+            boolean clicked = mutations < 0 || mutations > before.mutations;
+            if (!clicked || name == null || name.isEmpty()) return false;
+            boolean replaced = !Boolean.TRUE.equals(state.get(3)) || !name.equals(before.name);
+            return replaced || now - quietSince[0] >= SETTLE_NANOS;
+        });
+    }
+
+    // Arms the MutationObserver and returns the mutation count to pass to forMutation
+    public long mutationCount() {
+        Object count = ((JavascriptExecutor) driver).executeScript(MUTATION_COUNTER);
+        return count instanceof Number ? ((Number) count).longValue() : 0;
+    }
+
+    // Waits until the DOM changed after mutationCount() returned before (a reload counts as a change)
+    public void forMutation(long before) {
+        poll("dom mutation", d -> {
+            Object count = ((JavascriptExecutor) d).executeScript(
+                    "return window.__uiMutations ? window.__uiMutations.count : -1;");
+            long now = count instanceof Number ? ((Number) count).longValue() : -1;
+            return now < 0 || now > before;
+        });
+    }
+
+    /**
+     * Waits until the explorer node at the path shows as expanded with its children
+     * rendered (or the given child, if the folder turns out to have only that one),
+     * and returns the snapshot that showed it. One executeScript per poll. The child
+     * may be null when it is not known which children to expect.
+     */
+    public ExplorerSnapshot forExpanded(List<String> path, String child) {
+        List<String> childPath = new ArrayList<>(path);
+        childPath.add(child);
+        return poll("node expanded", d -> {
+            ExplorerSnapshot snapshot = ExplorerSnapshot.take(d, path.get(0));
+            ExplorerSnapshot.TreeNode node = snapshot.find(path);
+            if (node == null || !node.expanded) return null;
+            return node.children > 0 || (child != null && snapshot.find(childPath) != null) ? snapshot : null;
+        });
+    }
+
+    private synchronized void record(String kind, long millis) {
+        durations.computeIfAbsent(kind, k -> new ArrayList<>()).add(millis);
+    }
+
+    // One line per wait kind: count, median, 95th percentile and max in ms
+    public synchronized String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, List<Long>> e : durations.entrySet()) {
+            List<Long> sorted = new ArrayList<>(e.getValue());
+            Collections.sort(sorted);
+            int n = sorted.size();
+            sb.append(String.format("%-16s %5d waits | median %5d ms | p95 %5d ms | max %5d ms%n", e.getKey(), n,
+                    sorted.get(n / 2), sorted.get(Math.min(n - 1, (int) Math.ceil(n * 0.95) - 1)), sorted.get(n - 1)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package utils;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+import utils.JsonParserUtil.Field;
+
+/**
+ * Compact storage for the fields of one Entity.
+ *
+ * Instead of one Field object (plus its own name and type Strings) per field,
+ * the list keeps parallel arrays: pooled names, one-byte ScalarTypes codes and
+ * a bitset of PK flags. It is still a List<Field>: get(i) returns a Field
+ * built from the arrays, so existing code keeps working. Such a Field is a
+ * copy; changing it does not change the list. Hot paths can use name(i),
+ * scalarType(i) and isPk(i), which allocate nothing.
+ */
+public class FieldList extends AbstractList<Field> implements RandomAccess {
+
+    private String[] names = new String[4];
+    private byte[] types = new byte[4];
+    private long[] pkBits = new long[1];
+    private int size;
+
+    @Override
+    public boolean add(Field field) {
+        add(field.name, field.scalarType, field.pk);
+        return true;
+    }
+
+    public void add(String name, String scalarType, boolean pk) {
+        if (size == names.length) {
+            int capacity = size + (size >> 1) + 1;
+            names = Arrays.copyOf(names, capacity);
+            types = Arrays.copyOf(types, capacity);
+        }
+        if ((size >> 6) == pkBits.length) pkBits = Arrays.copyOf(pkBits, pkBits.length * 2);
+        names[size] = name;
+        types[size] = (byte) ScalarTypes.code(scalarType);
+        if (pk) pkBits[size >> 6] |= 1L << size;
+        modCount++;
+        size++;
+    }
+
+    @Override
+    public Field get(int index) {
+        checkIndex(index);
+        Field field = new Field();
+        field.name = names[index];
+        field.scalarType = scalarType(index);
+        field.pk = isPk(index);
+        return field;
+    }
+
+    public String name(int index) {
+        checkIndex(index);
+        return names[index];
+    }
+
+    public String scalarType(int index) {
+        return ScalarTypes.name(typeCode(index));
+    }
+
+    public int typeCode(int index) {
+        checkIndex(index);
+        return types[index] & 0xFF;
+    }
+
+    public boolean isPk(int index) {
+        checkIndex(index);
+        return (pkBits[index >> 6] & (1L << index)) != 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Drops the spare capacity once the entity is fully read
+    public void trimToSize() {
+        names = Arrays.copyOf(names, size);
+        types = Arrays.copyOf(types, size);
+        pkBits = Arrays.copyOf(pkBits, Math.max(1, (size + 63) >> 6));
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+}
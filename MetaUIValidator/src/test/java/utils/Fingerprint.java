@@ -0,0 +1,124 @@
+package utils;
+
+import utils.JsonParserUtil.Entity;
+import utils.JsonParserUtil.EnumLiteral;
+import utils.JsonParserUtil.Enumeration;
+import utils.JsonParserUtil.FileFolder;
+import utils.JsonParserUtil.Flow;
+
+/**
+ * Short content hash of a resource, computed the same way from the parsed
+ * export (here) and inside the page (HASH_FUNCTION, run by ProjectDetailsPage),
+ * so only 16 hex characters cross the WebDriver boundary when UI and JSON agree.
+ *
+ * The hashed text is the resource kind and name, then one row per item in
+ * display order, rows separated by U+001E and values by U+001F:
+ *   entity       E, name | field name, type, PK
+ *   enumeration  N, name | literal
+ *   flow         F, name | input name, type, "" (inputs have no PK)
+ *   folder       V, name | location | Citizen Tool flag
+ * null is written as "", booleans as 1 / 0. The hash is two 32-bit lanes over
+ * the UTF-16 code units: plain FNV-1a, and FNV-1a with an extra xorshift and
+ * multiply per unit so the lanes do not collide together (Math.imul in the
+ * page, int overflow here).
+ */
+public final class Fingerprint {
+
+    private static final char ROW = '\u001e';
+    private static final char VALUE = '\u001f';
+    private static final int PRIME = 0x01000193;
+    private static final int BASIS_1 = 0x811c9dc5;
+    private static final int BASIS_2 = 0xcbf29ce4;
+
+    /** The same hash as a JavaScript function expression taking the text. */
+    public static final String HASH_FUNCTION =
+            "function(text) {"
+            + "  var h1 = 0x811c9dc5, h2 = 0xcbf29ce4 | 0;"
+            + "  for (var i = 0; i < text.length; i++) {"
+            + "    var c = text.charCodeAt(i);"
+            + "    h1 = Math.imul(h1 ^ c, 0x01000193);"
+            + "    h2 = Math.imul(h2 ^ c, 0x01000193);"
+            + "    h2 = Math.imul(h2 ^ (h2 >>> 15), 0x01000193);"
+            + "  }"
+            + "  var hex = function(h) { return ('0000000' + (h >>> 0).toString(16)).slice(-8); };"
+            + "  return hex(h1) + hex(h2);"
+            + "}";
+
+    /**
+     * JavaScript function expression building the hashed text from a kind, a name
+     * and lists of rows (a row is an array of values or a single value).
+     */
+    public static final String CANONICAL_FUNCTION =
+            "function(kind, name, lists) {"
+            + "  var value = function(v) { return v === null || v === undefined ? '' : v === true ? '1' : v === false ? '0' : String(v); };"
+            + "  var text = kind + '\\u001f' + value(name);"
+            + "  lists.forEach(function(rows) { rows.forEach(function(row) {"
+            + "    text += '\\u001e' + (Array.isArray(row) ? row.map(value).join('\\u001f') : value(row));"
+            + "  }); });"
+            + "  return text;"
+            + "}";
+
+    private final StringBuilder text;
+
+    private Fingerprint(String kind, String name) {
+        text = new StringBuilder(kind).append(VALUE);
+        append(name);
+    }
+
+    public static String of(Entity entity) {
+        Fingerprint f = new Fingerprint("E", entity.entityName);
+        for (int i = 0; i < entity.fields.size(); i++) {
+            f.row(entity.fields.name(i), entity.fields.scalarType(i), entity.fields.isPk(i));
+        }
+        return f.hash();
+    }
+
+    public static String of(Enumeration enumeration) {
+        Fingerprint f = new Fingerprint("N", enumeration.name);
+        for (EnumLiteral literal : enumeration.literals) f.row(literal.constant);
+        return f.hash();
+    }
+
+    public static String of(Flow flow) {
+        Fingerprint f = new Fingerprint("F", flow.name);
+        for (int i = 0; i < flow.inputs.size(); i++) f.row(flow.inputs.name(i), flow.inputs.scalarType(i), null);
+        return f.hash();
+    }
+
+    public static String of(FileFolder folder) {
+        Fingerprint f = new Fingerprint("V", folder.name);
+        f.row(folder.location);
+        f.row(Boolean.TRUE.equals(folder.citizenToolEnabled));
+        return f.hash();
+    }
+
+    private Fingerprint row(Object... values) {
+        text.append(ROW);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) text.append(VALUE);
+            append(values[i]);
+        }
+        return this;
+    }
+
+    private void append(Object value) {
+        if (value instanceof Boolean) text.append((Boolean) value ? '1' : '0');
+        else if (value != null) text.append(value);
+    }
+
+    private String hash() {
+        return hash(text);
+    }
+
+    // Hash of any text, identical to HASH_FUNCTION
+    public static String hash(CharSequence text) {
+        int h1 = BASIS_1, h2 = BASIS_2;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            h1 = (h1 ^ c) * PRIME;
+            h2 = (h2 ^ c) * PRIME;
+            h2 = (h2 ^ (h2 >>> 15)) * PRIME;
+        }
+        return String.format("%08x%08x", h1, h2);
+    }
+}
@@ -0,0 +1,68 @@
+package utils;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+import utils.JsonParserUtil.FlowInput;
+
+/**
+ * Compact storage for the inputs of one Flow: pooled names and one-byte
+ * ScalarTypes codes. Works like FieldList; get(i) returns a FlowInput copy.
+ */
+public class FlowInputList extends AbstractList<FlowInput> implements RandomAccess {
+
+    private String[] names = new String[2];
+    private byte[] types = new byte[2];
+    private int size;
+
+    @Override
+    public boolean add(FlowInput input) {
+        add(input.name, input.scalarType);
+        return true;
+    }
+
+    public void add(String name, String scalarType) {
+        if (size == names.length) {
+            int capacity = size + (size >> 1) + 1;
+            names = Arrays.copyOf(names, capacity);
+            types = Arrays.copyOf(types, capacity);
+        }
+        names[size] = name;
+        types[size] = (byte) ScalarTypes.code(scalarType);
+        modCount++;
+        size++;
+    }
+
+    @Override
+    public FlowInput get(int index) {
+        FlowInput input = new FlowInput();
+        input.name = name(index);
+        input.scalarType = scalarType(index);
+        return input;
+    }
+
+    public String name(int index) {
+        checkIndex(index);
+        return names[index];
+    }
+
+    public String scalarType(int index) {
+        checkIndex(index);
+        return ScalarTypes.name(types[index] & 0xFF);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public void trimToSize() {
+        names = Arrays.copyOf(names, size);
+        types = Arrays.copyOf(types, size);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+}
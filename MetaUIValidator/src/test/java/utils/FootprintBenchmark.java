@@ -0,0 +1,108 @@
+package utils;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import utils.JsonParserUtil.Entity;
+import utils.JsonParserUtil.Flow;
+import utils.JsonParserUtil.ParseMode;
+
+/**
+ * Heap footprint of the compact entity/flow storage (FieldList, FlowInputList)
+ * compared with the previous layout of one Field/FlowInput object per entry,
+ * each with its own name and type Strings as the parsers used to create them.
+ *
+ * Both layouts are built from the same synthetic export, so the difference is
+ * only the representation. Run with e.g.
+ *   java -Xmx2g -cp target/test-classes:... utils.FootprintBenchmark 4000 200
+ * (entity count, fields per entity).
+ */
+public class FootprintBenchmark {
+
+    // The layout before FieldList: an ArrayList of objects with per-field Strings
+    static class ObjectField {
+        String name;
+        String scalarType;
+        boolean pk;
+    }
+
+    static class ObjectEntity {
+        String entityName;
+        List<ObjectField> fields = new ArrayList<>();
+    }
+
+    static class ObjectInput {
+        String name;
+        String scalarType;
+    }
+
+    static class ObjectFlow {
+        String name;
+        List<ObjectInput> inputs = new ArrayList<>();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int entityCount = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+        int fieldsPerEntity = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        Path dir = Paths.get(System.getProperty("user.dir"), "target", "bench");
+        Path file = SyntheticExport.write(dir.resolve("footprint-" + entityCount + "x" + fieldsPerEntity + ".json"),
+                entityCount, fieldsPerEntity);
+
+        long base = ParserBenchmark.usedHeapAfterGc();
+        ProjectModel model = ParserBenchmark.quietly(file, ParseMode.MAPPED);
+        long compact = ParserBenchmark.usedHeapAfterGc() - base;
+
+        base = ParserBenchmark.usedHeapAfterGc();
+        List<ObjectEntity> entities = objectEntities(model.getEntities());
+        List<ObjectFlow> flows = objectFlows(model.getFlows());
+        long objects = ParserBenchmark.usedHeapAfterGc() - base;
+
+        long fieldCount = 0;
+        for (ObjectEntity entity : entities) fieldCount += entity.fields.size();
+        System.out.println("Export: " + file + " | " + entities.size() + " entities, " + fieldCount + " fields, "
+                + flows.size() + " flows");
+        System.out.printf("%-28s %12s %16s%n", "layout", "heap MB", "bytes per field");
+        System.out.printf("%-28s %12.1f %16.1f%n", "one object per field", objects / 1048576.0,
+                (double) objects / fieldCount);
+        System.out.printf("%-28s %12.1f %16.1f%n", "compact (whole model)", compact / 1048576.0,
+                (double) compact / fieldCount);
+        System.out.printf("Reduction: %.1fx less heap (%.0f%%)%n", (double) objects / compact,
+                100.0 * (objects - compact) / objects);
+    }
+
+    private static List<ObjectEntity> objectEntities(List<Entity> entities) {
+        List<ObjectEntity> copies = new ArrayList<>();
+        for (Entity entity : entities) {
+            ObjectEntity copy = new ObjectEntity();
+            copy.entityName = new String(entity.entityName);
+            for (int f = 0; f < entity.fields.size(); f++) {
+                ObjectField field = new ObjectField();
+                field.name = new String(entity.fields.name(f));
+                field.scalarType = new String(entity.fields.scalarType(f));
+                field.pk = entity.fields.isPk(f);
+                copy.fields.add(field);
+            }
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    private static List<ObjectFlow> objectFlows(List<Flow> flows) {
+        List<ObjectFlow> copies = new ArrayList<>();
+        for (Flow flow : flows) {
+            ObjectFlow copy = new ObjectFlow();
+            copy.name = new String(flow.name);
+            for (int n = 0; n < flow.inputs.size(); n++) {
+                ObjectInput input = new ObjectInput();
+                input.name = new String(flow.inputs.name(n));
+                input.scalarType = new String(flow.inputs.scalarType(n));
+                copy.inputs.add(input);
+            }
+            copies.add(copy);
+        }
+        return copies;
+    }
+}
@@ -0,0 +1,71 @@
+package utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import utils.JsonParserUtil.Resource;
+
+/**
+ * Any resource without a dedicated model class (folders, files, rests, sqls,
+ * dialogs, jobs, dataSources, ...).
+ *
+ * Keeps the entries every resource has plus the resource's own top-level
+ * scalar values in attributes; nested objects and arrays are skipped.
+ */
+public class GenericResource extends Resource {
+    public String name;
+    public String type;          // $type, e.g. "Package", "FileResource"
+    public Map<String, Object> attributes = new LinkedHashMap<>();
+
+    private static final byte[][] KEYS = MappedJsonReader.keys(
+            "name", "$type", "$ref", "$folderRef", "$displayName", "$absoluteRef", "changedVersion");
+
+    static GenericResource read(MappedJsonReader r) {
+        GenericResource resource = new GenericResource();
+        r.beginObject();
+        while (r.hasNext()) {
+            int start = r.position();
+            switch (r.nextName(KEYS)) {
+                case 0:
+                    resource.name = r.nextString();
+                    break;
+                case 1:
+                    resource.type = r.nextString();
+                    break;
+                case 2:
+                    resource.ref = r.nextString();
+                    break;
+                case 3:
+                    resource.folderRef = r.nextString();
+                    break;
+                case 4:
+                    resource.displayName = r.nextString();
+                    break;
+                case 5:
+                    resource.absoluteRef = r.nextString();
+                    break;
+                case 6:
+                    resource.changedVersion = r.nextLong();
+                    break;
+                default:
+                    byte next = r.peek();
+                    if (next == '{' || next == '[') {
+                        r.skipValue();
+                    } else {
+                        // re-read the key as a String only for kept attributes
+                        r.position(start);
+                        String key = r.nextName();
+                        resource.attributes.put(key, r.nextScalar());
+                    }
+                    break;
+            }
+        }
+        r.endObject();
+        return resource;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + (displayName != null ? displayName : name) + " (" + ref + ")";
+    }
+}
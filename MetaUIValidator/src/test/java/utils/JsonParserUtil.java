@@ -1,8 +1,17 @@
 package utils;
 
-import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
@@ -14,265 +23,416 @@ import org.json.simple.parser.JSONParser;
    2. Enumerations
    3. Flows
    4. FileFolder
+
+   The export is parsed once per path into a ProjectModel which is shared
+   by the whole suite (see getProjectModel). Select the parser with
+   -Dparser.mode=mapped (default), -Dparser.mode=parallel, -Dparser.mode=streaming
+   or -Dparser.mode=tree.
+   A binary snapshot of the model is kept next to the export and reused while
+   the export's hash is unchanged (disable with -Dparser.snapshot=false).
  */
 public class JsonParserUtil {
 	
-	   //Represents a field inside an Entity (SampleStructure)
+	    //Details every resource in result -> resources carries
+	    public static class Resource {
+	        public String absoluteRef;      // $absoluteRef, unique across projects
+	        public long changedVersion;     // bumped whenever the resource is edited
+	        public String ref;              // $ref, e.g. "ent:SampleModel/SampleStrucuture"
+	        public String folderRef;        // $folderRef, e.g. "fld:pck/SampleModel"; null for top-level resources
+	        public String displayName;      // $displayName, e.g. "SampleModel/SampleStrucuture"
+	    }
+	   //Represents a field inside an Entity (SampleStructure); stored compactly in FieldList
 	   public static class Field {
 	        public String name;
 	        public String scalarType;
 	        public boolean pk;
 	    }
 	    //Represents an Entity (like "SampleStructure")//
-	    public static class Entity {
+	    public static class Entity extends Resource {
 	        public String entityName;
-	        public List<Field> fields = new ArrayList<>();
+	        public final FieldList fields = new FieldList();
 	    }
         //Represents a single literal value inside an Enumeration 
 	    public static class EnumLiteral {
 	        public String constant;
 	    }
         //Represents an Enumeration
-	    public static class Enumeration {
+	    public static class Enumeration extends Resource {
 	        public String name;
 	        public List<EnumLiteral> literals = new ArrayList<>();
 	    }
-        //Represents a single input (name and type) parameter for a Flow
+        //Represents a single input (name and type) parameter for a Flow; stored compactly in FlowInputList
 	    public static class FlowInput {
 	        public String name;
 	        public String scalarType;
 	    }
         //Represents a Flow (like "ServerFlow")
-	    public static class Flow {
+	    public static class Flow extends Resource {
 	        public String name;
-	        public List<FlowInput> inputs = new ArrayList<>();
+	        public final FlowInputList inputs = new FlowInputList();
 	    }
 	    //Represents a FileFolder (like "VF1").
-	    public static class FileFolder {
+	    public static class FileFolder extends Resource {
 	        public String name;
 	        public Boolean citizenToolEnabled;
 	        public String location;
 	    }
+	    // Models already loaded in this JVM, keyed by absolute export path
+	    private static final Map<String, ProjectModel> MODELS = new ConcurrentHashMap<>();
+	    // Bytes read from the start of an export to find result.hash; smaller exports are read whole
+	    static final int HASH_PROBE_BYTES = 64 * 1024;
+
+	    //PROJECT MODEL SECTION
+	    /**
+	     * Returns the model for the given export, parsing it on first use only.
+	     * Every test method (and every test class) asking for the same file gets
+	     * the same read-only instance.
+	     */
+	    public static ProjectModel getProjectModel(String jsonPath) {
+	        String key = Paths.get(jsonPath).toAbsolutePath().normalize().toString();
+	        return MODELS.computeIfAbsent(key, JsonParserUtil::loadProjectModel);
+	    }
+
+	    /**
+	     * How the export is read:
+	     *  TREE      - json-simple builds the full JSONObject tree, then the sections are read from it
+	     *  STREAMING - json-simple token stream, only the fields the validators use are kept
+	     *  MAPPED    - memory-mapped UTF-8 bytes, only the values the validators use are decoded,
+	     *              and each section only when it is first asked for
+	     *  PARALLEL  - like MAPPED, but every section is decoded up front on a fork/join pool
+	     *              (-Dparser.threads, default one per core)
+	     */
+	    public enum ParseMode {
+	        TREE, STREAMING, MAPPED, PARALLEL;
+
+	        // Mode selected with -Dparser.mode, MAPPED if not set
+	        public static ParseMode fromSystemProperty() {
+	            return valueOf(System.getProperty("parser.mode", "mapped").trim().toUpperCase());
+	        }
+	    }
+
+	    /**
+	     * Loads the export's model from its snapshot when the snapshot was written for
+	     * the same result.hash; otherwise reads the whole export in a single pass with the
+	     * parser selected by -Dparser.mode and (re)writes the snapshot.
+	     *
+	     * The hash is read from the first HASH_PROBE_BYTES of the export. An export that
+	     * fits in them is read once, and on a snapshot miss the mapped parser works on
+	     * those same bytes.
+	     */
+	    public static ProjectModel loadProjectModel(String jsonPath) {
+	        Path file = Paths.get(jsonPath);
+	        ParseMode mode = ParseMode.fromSystemProperty();
+	        if (!Boolean.parseBoolean(System.getProperty("parser.snapshot", "true"))) {
+	            return loadProjectModel(file, mode, null);
+	        }
+
+	        Path snapshot = ModelSnapshot.snapshotPath(file);
+	        // the whole export, when the hash probe already read all of it
+	        ByteBuffer bytes = null;
+	        try {
+	            long start = System.nanoTime();
+	            long size = Files.size(file);
+	            String hash = null;
+	            if (size <= Integer.MAX_VALUE) {
+	                ByteBuffer head = MappedJsonReader.head(file, HASH_PROBE_BYTES);
+	                if (head.limit() == size) bytes = head;
+	                hash = readHash(file, head, size);
+	            }
+	            ProjectModel cached = ModelSnapshot.load(snapshot, hash);
+	            if (cached != null) {
+	                cached.attachExport(file);
+	                System.out.println("\n Loaded " + cached);
+	                System.out.printf(" Snapshot load: %.1f ms (%s)%n", (System.nanoTime() - start) / 1e6, snapshot.getFileName());
+	                return cached;
+	            }
+	        } catch (Exception e) {
+	            System.out.println(" Unable to check snapshot for " + jsonPath + ": " + e.getMessage());
+	        }
+
+	        ProjectModel model = loadProjectModel(file, mode, bytes);
+	        if (model.getHash() != null) {
+	            try {
+	                ModelSnapshot.write(model, snapshot);
+	                System.out.println(" Wrote snapshot " + snapshot.getFileName() + " for hash " + model.getHash());
+	            } catch (Exception e) {
+	                System.out.println(" Unable to write snapshot " + snapshot + ": " + e.getMessage());
+	            }
+	        }
+	        return model;
+	    }
+
+	    /**
+	     * result.hash from the start of the export. Only if it comes after a section
+	     * that does not fit in head is the file mapped, and the values before the hash
+	     * skipped, without reading the export into the heap.
+	     */
+	    static String readHash(Path file, ByteBuffer head, long size) throws IOException {
+	        try {
+	            return MappedModelParser.readHash(new MappedJsonReader(head));
+	        } catch (IllegalStateException e) {
+	            if (head.limit() == size) throw e;
+	        }
+	        return MappedModelParser.readHash(new MappedJsonReader(MappedJsonReader.map(file, 0)));
+	    }
+
+	    public static ProjectModel loadProjectModel(String jsonPath, ParseMode mode) {
+	        return loadProjectModel(Paths.get(jsonPath), mode, null);
+	    }
+
+	    // Parses the export; the mapped parsers use bytes when they hold the whole export already
+	    private static ProjectModel loadProjectModel(Path file, ParseMode mode, ByteBuffer bytes) {
+	        try {
+	            long start = System.nanoTime();
+	            boolean mapped = mode == ParseMode.MAPPED || mode == ParseMode.PARALLEL;
+	            if (mapped && Files.size(file) > Integer.MAX_VALUE) {
+	                System.out.println(" Export is over 2 GB and cannot be mapped, streaming it instead");
+	                mapped = false;
+	            }
+	            ProjectModel model;
+	            if (mode == ParseMode.TREE) {
+	                model = parseTree(file);
+	            } else if (mapped) {
+	                ByteBuffer buf = bytes != null ? bytes : MappedJsonReader.map(file);
+	                model = mode == ParseMode.PARALLEL ? parseParallel(buf)
+	                        : MappedModelParser.parse(new MappedJsonReader(buf));
+	            } else {
+	                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+	                    model = StreamingModelParser.parse(reader);
+	                }
+	            }
+	            long elapsedNanos = System.nanoTime() - start;
+	            model.attachExport(file);
+	            System.out.println("\n Loaded " + model);
+	            System.out.println(" " + mode + " parse: " + throughput(Files.size(file), elapsedNanos));
+	            return model;
+	        } catch (Exception e) {
+	            System.out.println("Error parsing JSON export: " + e.getMessage());
+	            throw new RuntimeException("Failed to parse JSON export: " + file, e);
+	        }
+	    }
+
+	    static ProjectModel parseParallel(ByteBuffer buf) {
+	        ForkJoinPool pool = new ForkJoinPool(ParallelModelParser.threadsFromSystemProperty());
+	        try {
+	            return ParallelModelParser.parse(new MappedJsonReader(buf), pool);
+	        } finally {
+	            pool.shutdown();
+	        }
+	    }
+
+	    // Formats "<size> MB in <time> ms (<rate> MB/s)" for the parse log lines
+	    static String throughput(long bytes, long elapsedNanos) {
+	        double mb = bytes / (1024.0 * 1024.0);
+	        double seconds = Math.max(elapsedNanos, 1) / 1e9;
+	        return String.format("%.2f MB in %.1f ms (%.1f MB/s)", mb, elapsedNanos / 1e6, mb / seconds);
+	    }
+
+	    // Builds the whole json-simple tree first, then reads the sections from it
+	    static ProjectModel parseTree(Path file) throws Exception {
+	        try (Reader jpath = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+	            JSONParser parser = new JSONParser();
+	            JSONObject root = (JSONObject) parser.parse(jpath);
+
+	            //Go into the header and resources: result -> resources
+	            JSONObject result = (JSONObject) root.get("result");
+	            JSONObject project = (JSONObject) result.get("project");
+	            JSONObject resources = (JSONObject) result.get("resources");
+
+	            String projectName = project != null ? (String) project.get("name") : null;
+	            Object revValue = result.get("rev");
+	            long rev = revValue != null ? ((Number) revValue).longValue() : 0;
+	            String hash = (String) result.get("hash");
+
+	            // one pool for the whole export: the same names repeat across sections
+	            NamePool names = new NamePool();
+	            return new ProjectModel(projectName, rev, hash,
+	                    readEntities(resources, names), readEnumerations(resources, names),
+	                    readFlows(resources, names), readFileFolders(resources));
+	        }
+	    }
+
+	    // Reads the details shared by all resources ($absoluteRef, changedVersion)
+	    static void readResource(JSONObject json, Resource resource) {
+	        resource.absoluteRef = (String) json.get("$absoluteRef");
+	        Object changedVersion = json.get("changedVersion");
+	        resource.changedVersion = changedVersion != null ? ((Number) changedVersion).longValue() : 0;
+	        resource.ref = (String) json.get("$ref");
+	        resource.folderRef = (String) json.get("$folderRef");
+	        resource.displayName = (String) json.get("$displayName");
+	    }
+
 	    //ENTITIES PARSING SECTION
 	    /*
 	     * Reads the "entities" section of the JSON.
 	     * Extracts entity name, fields, their types, and PK flag.
 	     */
-        public static List<Entity> parseEntities(String jsonPath) {
-        List<Entity> entities = new ArrayList<>();
-
-        try {
-            JSONParser parser = new JSONParser();
-            FileReader jpath=new FileReader(jsonPath);
-            Object obj = parser.parse(jpath);
-
-            //Go into entities in JSON : result->resources->entities
-            JSONObject root = (JSONObject) obj;
-            JSONObject result = (JSONObject) root.get("result");
-            JSONObject resources = (JSONObject) result.get("resources");
-            JSONArray entityArray = (JSONArray) resources.get("entities");
-
-            //Loop through each entity
-            for (Object eObj : entityArray) {
-                JSONObject entityJson = (JSONObject) eObj;
-                //Create an object for entity class
-                Entity entity = new Entity();
-                
-                //Get the entity name
-                entity.entityName = (String) entityJson.get("name");
-                System.out.println("\n Found Entity:" + entity.entityName);
-
-                //Get "fields" array inside the entities in JSON
-                JSONArray fieldsArray = (JSONArray) entityJson.get("fields");
-                
-                // Loop through fields and extract details(name and type)
-                for (Object fObj : fieldsArray) {
-                    JSONObject fieldJson = (JSONObject) fObj;
-                    Field field = new Field();
-                    //Get the field name
-                    field.name = (String) fieldJson.get("name");
-
-                    // Get the field type
-                    JSONObject typeObj = (JSONObject) fieldJson.get("type");
-                    if (typeObj != null) {
-                        field.scalarType = (String) typeObj.get("scalarType");
-                    } else {
-                        field.scalarType = "UNKNOWN";
-                    }
-
-                    // Get the Primary key flag
-                    Object pkValue = fieldJson.get("pk");
-                    field.pk = pkValue!= null && (Boolean) pkValue;
-
-                    /*System.out.println("FieldName:" + field.name +
-                                       "| Data Type: " + field.scalarType +
-                                       "| PK: " + field.pk);*/
-
-                    entity.fields.add(field);
-                }
-
-                entities.add(entity);
-            }
-
-        } catch (Exception e) {
-            System.out.println("Error parsing Entities: " + e.getMessage());
-        }
-
-        return entities;
-    }
-        
-        //ENUMERATIONS PARSING SECTION
-        /**
-         * Reads the "enumerations" section of the JSON.
-         * Extracts enumeration name and its literal values.
-         */    
- public static List<Enumeration> parseEnumerations(String jsonPath) {
-     List<Enumeration> enumerations = new ArrayList<>();
-     try {
-         JSONParser parser = new JSONParser();
-         FileReader jpath = new FileReader(jsonPath);
-         Object obj = parser.parse(jpath);
-
-         //Go into enumerations: result -> resources -> enumerations
-         JSONObject root = (JSONObject) obj;
-         JSONObject result = (JSONObject) root.get("result");
-         JSONObject resources = (JSONObject) result.get("resources");
-         JSONArray enumArray = (JSONArray) resources.get("enumerations");
-         
-         // Loop through each enum object
-         if (enumArray != null) {
-             for (Object eObj : enumArray) {
-                 JSONObject enumJson = (JSONObject) eObj;
-                 //Create an object for Enumeration class
-                 Enumeration enm = new Enumeration();
-                 enm.name = (String) enumJson.get("name");
-                 System.out.println("\n Found Enumeration: "+enm.name);
-                 
-                 // Extract literal values
-                 JSONArray literalsArray = (JSONArray) enumJson.get("literals");
-                 if (literalsArray != null) {
-                     for (Object lObj : literalsArray) {
-                         JSONObject litJson = (JSONObject) lObj;
-                         EnumLiteral lit = new EnumLiteral();
-                         lit.constant = (String) litJson.get("constant");
-                         System.out.println("Literal: "+ lit.constant);
-                         enm.literals.add(lit);
-                     }
-                 }
-                 enumerations.add(enm);
-             }
-         }
-
-     } catch (Exception e) {
-         System.out.println("Error parsing Enumerations: " + e.getMessage());
-     }
-     return enumerations;
- }
-
- // FLOWS PARSING SECTION
- /**
-  * Reads the "flows" section of the JSON.
-  * Extracts flow name and its input parameters (name + type).
-  */
- public static List<Flow> parseFlows(String jsonPath) {
-     List<Flow> flows = new ArrayList<>();
-     try {
-         JSONParser parser = new JSONParser();
-         FileReader jpath = new FileReader(jsonPath);
-         Object obj = parser.parse(jpath);
-
-      // Go into flows: result -> resources -> flows
-         JSONObject root = (JSONObject) obj;
-         JSONObject result = (JSONObject) root.get("result");
-         JSONObject resources = (JSONObject) result.get("resources");
-         JSONArray flowArray = (JSONArray) resources.get("flows");
-
-         //Get the flow name
-         if (flowArray != null) {
-             for (Object fObj : flowArray) {
-                 JSONObject flowJson = (JSONObject) fObj;
-                 Flow flow = new Flow();
-                 flow.name = (String) flowJson.get("name");
-                 System.out.println("\n Found Flow: "+ flow.name);
-                 
-                 // Extract input parameters (name and scalar type)
-                 JSONArray inputArray = (JSONArray) flowJson.get("input");
-                 if (inputArray != null) {
-                     for (Object inputObj : inputArray) {
-                         JSONObject inputJson = (JSONObject) inputObj;
-                         FlowInput fi = new FlowInput();
-                         fi.name = (String) inputJson.get("name");
-
-                         JSONObject typeObj = (JSONObject) inputJson.get("type");
-                         fi.scalarType = typeObj != null ? (String) typeObj.get("scalarType") : "UNKNOWN";
-
-                         System.out.println("Input: " + fi.name + " | Type: " + fi.scalarType);
-                         flow.inputs.add(fi);
-                     }
-                 }
-                 flows.add(flow);
-             }
-         }
-
-     } catch (Exception e) {
-         System.out.println("Error parsing Flows: " + e.getMessage());
-     }
-     return flows;
- }
-
- //FILEFOLDERS (VIRTUAL FOLDERS) PARSING SECTION
- /**
-  * Reads the "fileFolders" section of the JSON.
-  * Extracts folder name, citizen tool enabled flag, and location.
-  */
- public static List<FileFolder> parseFileFolders(String jsonPath) {
-     List<FileFolder> folders = new ArrayList<>();
-     try {
-         JSONParser parser = new JSONParser();
-         FileReader jpath = new FileReader(jsonPath);
-         Object obj = parser.parse(jpath);
-
-         // Go into: result -> resources -> fileFolders
-         JSONObject root = (JSONObject) obj;
-         JSONObject result = (JSONObject) root.get("result");
-         JSONObject resources = (JSONObject) result.get("resources");
-         JSONArray folderArray = (JSONArray) resources.get("fileFolders");
-
-         if (folderArray != null) {
-             for (Object fObj : folderArray) {
-                 JSONObject folderJson = (JSONObject) fObj;
-                 FileFolder folder = new FileFolder();
-                 
-                 // Extract folder details(name, citizen tool enabled flag, and location)
-                 folder.name = (String) folderJson.get("name");
-                 folder.citizenToolEnabled = (Boolean) folderJson.get("isCitizenToolEnabled");
-                 folder.location = (String) folderJson.get("location");
-
-                 System.out.println("\n Found FileFolder: "+ folder.name);
-                 System.out.println("Citizen Tool Enabled:"+ folder.citizenToolEnabled);
-                 System.out.println("Location:"+ folder.location);
-
-                 folders.add(folder);
-             }
-         }
-
-     } catch (Exception e) {
-         System.out.println("Error parsing FileFolders: " + e.getMessage());
-         
-     }
-     return folders;
- }
- //Test run
- public static void main(String[] args) {
-     String jsonFilePath = System.getProperty("user.dir")
-             + "\\src\\test\\resources\\Jsonfiles\\QAChallengeJSON.json";
-
-     // Parse everything
-     List<Entity> entities = parseEntities(jsonFilePath);
-     parseEnumerations(jsonFilePath);
-     parseFlows(jsonFilePath);
-     parseFileFolders(jsonFilePath);
-		// Final summary
-     System.out.println("\n Finished parsing all sections successfully");
-		}
+	    public static List<Entity> parseEntities(String jsonPath) {
+	        return getProjectModel(jsonPath).getEntities();
+	    }
+
+	    static List<Entity> readEntities(JSONObject resources, NamePool names) {
+	        List<Entity> entities = new ArrayList<>();
+	        JSONArray entityArray = (JSONArray) resources.get("entities");
+	        if (entityArray == null) return entities;
+
+	        //Loop through each entity
+	        for (Object eObj : entityArray) {
+	            JSONObject entityJson = (JSONObject) eObj;
+	            //Create an object for entity class
+	            Entity entity = new Entity();
+
+	            //Get the entity name
+	            entity.entityName = (String) entityJson.get("name");
+	            readResource(entityJson, entity);
+
+	            //Get "fields" array inside the entities in JSON
+	            JSONArray fieldsArray = (JSONArray) entityJson.get("fields");
+
+	            // Loop through fields and extract details(name and type)
+	            if (fieldsArray != null) {
+	                for (Object fObj : fieldsArray) {
+	                    JSONObject fieldJson = (JSONObject) fObj;
+	                    Field field = new Field();
+	                    //Get the field name
+	                    field.name = names.dedupe((String) fieldJson.get("name"));
+
+	                    // Get the field type
+	                    JSONObject typeObj = (JSONObject) fieldJson.get("type");
+	                    if (typeObj != null) {
+	                        field.scalarType = (String) typeObj.get("scalarType");
+	                    } else {
+	                        field.scalarType = "UNKNOWN";
+	                    }
+
+	                    // Get the Primary key flag
+	                    Object pkValue = fieldJson.get("pk");
+	                    field.pk = pkValue != null && (Boolean) pkValue;
+
+	                    entity.fields.add(field);
+	                }
+	                entity.fields.trimToSize();
+	            }
+
+	            entities.add(entity);
+	        }
+	        return entities;
+	    }
+
+	    //ENUMERATIONS PARSING SECTION
+	    /**
+	     * Reads the "enumerations" section of the JSON.
+	     * Extracts enumeration name and its literal values.
+	     */
+	    public static List<Enumeration> parseEnumerations(String jsonPath) {
+	        return getProjectModel(jsonPath).getEnumerations();
+	    }
+
+	    static List<Enumeration> readEnumerations(JSONObject resources, NamePool names) {
+	        List<Enumeration> enumerations = new ArrayList<>();
+	        JSONArray enumArray = (JSONArray) resources.get("enumerations");
+	        if (enumArray == null) return enumerations;
+
+	        // Loop through each enum object
+	        for (Object eObj : enumArray) {
+	            JSONObject enumJson = (JSONObject) eObj;
+	            //Create an object for Enumeration class
+	            Enumeration enm = new Enumeration();
+	            enm.name = (String) enumJson.get("name");
+	            readResource(enumJson, enm);
+
+	            // Extract literal values
+	            JSONArray literalsArray = (JSONArray) enumJson.get("literals");
+	            if (literalsArray != null) {
+	                for (Object lObj : literalsArray) {
+	                    JSONObject litJson = (JSONObject) lObj;
+	                    EnumLiteral lit = new EnumLiteral();
+	                    lit.constant = names.dedupe((String) litJson.get("constant"));
+	                    enm.literals.add(lit);
+	                }
+	            }
+	            enumerations.add(enm);
+	        }
+	        return enumerations;
+	    }
+
+	    // FLOWS PARSING SECTION
+	    /**
+	     * Reads the "flows" section of the JSON.
+	     * Extracts flow name and its input parameters (name + type).
+	     */
+	    public static List<Flow> parseFlows(String jsonPath) {
+	        return getProjectModel(jsonPath).getFlows();
+	    }
+
+	    static List<Flow> readFlows(JSONObject resources, NamePool names) {
+	        List<Flow> flows = new ArrayList<>();
+	        JSONArray flowArray = (JSONArray) resources.get("flows");
+	        if (flowArray == null) return flows;
+
+	        //Get the flow name
+	        for (Object fObj : flowArray) {
+	            JSONObject flowJson = (JSONObject) fObj;
+	            Flow flow = new Flow();
+	            flow.name = (String) flowJson.get("name");
+	            readResource(flowJson, flow);
+
+	            // Extract input parameters (name and scalar type)
+	            JSONArray inputArray = (JSONArray) flowJson.get("input");
+	            if (inputArray != null) {
+	                for (Object inputObj : inputArray) {
+	                    JSONObject inputJson = (JSONObject) inputObj;
+	                    FlowInput fi = new FlowInput();
+	                    fi.name = names.dedupe((String) inputJson.get("name"));
+
+	                    JSONObject typeObj = (JSONObject) inputJson.get("type");
+	                    fi.scalarType = typeObj != null ? (String) typeObj.get("scalarType") : "UNKNOWN";
+
+	                    flow.inputs.add(fi);
+	                }
+	                flow.inputs.trimToSize();
+	            }
+	            flows.add(flow);
+	        }
+	        return flows;
+	    }
+
+	    //FILEFOLDERS (VIRTUAL FOLDERS) PARSING SECTION
+	    /**
+	     * Reads the "fileFolders" section of the JSON.
+	     * Extracts folder name, citizen tool enabled flag, and location.
+	     */
+	    public static List<FileFolder> parseFileFolders(String jsonPath) {
+	        return getProjectModel(jsonPath).getFileFolders();
+	    }
+
+	    static List<FileFolder> readFileFolders(JSONObject resources) {
+	        List<FileFolder> folders = new ArrayList<>();
+	        JSONArray folderArray = (JSONArray) resources.get("fileFolders");
+	        if (folderArray == null) return folders;
+
+	        for (Object fObj : folderArray) {
+	            JSONObject folderJson = (JSONObject) fObj;
+	            FileFolder folder = new FileFolder();
+
+	            // Extract folder details(name, citizen tool enabled flag, and location)
+	            folder.name = (String) folderJson.get("name");
+	            folder.citizenToolEnabled = (Boolean) folderJson.get("isCitizenToolEnabled");
+	            folder.location = (String) folderJson.get("location");
+	            readResource(folderJson, folder);
+	            folders.add(folder);
+	        }
+	        return folders;
+	    }
+
+	    //Test run (optionally pass the export path as first argument)
+	    public static void main(String[] args) {
+	        String jsonFilePath = args.length > 0 ? args[0] : Paths.get(System.getProperty("user.dir"),
+	                "src", "test", "resources", "Jsonfiles", "QAChallengeJSON.json").toString();
+
+	        // Parse everything in one pass
+	        ProjectModel model = getProjectModel(jsonFilePath);
+	        // Final summary
+	        System.out.println("\n Finished parsing all sections successfully: " + model);
+	    }
 }
@@ -0,0 +1,379 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Pull-style JSON reader working directly on the UTF-8 bytes of the export.
+ *
+ * Exports of -Dparser.mapThresholdMb (default 64) and more are memory-mapped
+ * (FileChannel + MappedByteBuffer), so nothing is copied or decoded up front;
+ * smaller ones are read into a heap buffer once. Object keys are matched against pre-encoded byte
+ * keys and skipped values are only scanned, never turned into Strings; a String
+ * is created only when the caller asks for a value with nextString().
+ *
+ * Like json-simple, the reader tolerates trailing commas ("[ {...}, ]"), which
+ * some exports contain.
+ */
+public final class MappedJsonReader {
+
+    // Files from this size on are mapped instead of read into the heap
+    private static final long MAP_THRESHOLD = Long.getLong("parser.mapThresholdMb", 64) * 1024 * 1024;
+
+    private final ByteBuffer buf;
+    private final int limit;
+    private final NamePool names;
+    private int pos;
+
+    // Reused while decoding strings, grows to the longest string seen
+    private char[] chars = new char[64];
+
+    public MappedJsonReader(ByteBuffer buf) {
+        this(buf, 0, buf.limit());
+    }
+
+    // Reader over the byte range [start, end) of the buffer
+    public MappedJsonReader(ByteBuffer buf, int start, int end) {
+        this(buf, start, end, new NamePool());
+    }
+
+    // Reader whose nextPooledString() values are deduplicated through the given pool
+    public MappedJsonReader(ByteBuffer buf, int start, int end, NamePool names) {
+        this.buf = buf;
+        this.pos = start;
+        this.limit = end;
+        this.names = names;
+    }
+
+    /**
+     * The whole file as a read-only buffer: mapped from -Dparser.mapThresholdMb
+     * on, read into the heap below that. Files over 2 GB cannot be held in one
+     * buffer; use the streaming parse mode for those.
+     *
+     * A mapping cannot be released explicitly, only when the buffer is garbage
+     * collected, and until then Windows keeps the file locked: a mapped export
+     * cannot be replaced or deleted while its model (which keeps the buffer for
+     * sections not decoded yet) is in use.
+     */
+    public static ByteBuffer map(Path file) throws IOException {
+        return map(file, MAP_THRESHOLD);
+    }
+
+    static ByteBuffer map(Path file, long mapThreshold) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Export too large to map (" + size + " bytes): " + file);
+            }
+            if (size >= mapThreshold) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            return read(channel, (int) size, file);
+        }
+    }
+
+    /**
+     * The first maxBytes of the file (the whole file if it is not longer) in a
+     * heap buffer: enough to read header values such as result.hash without
+     * touching the sections.
+     */
+    public static ByteBuffer head(Path file, int maxBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel, (int) Math.min(channel.size(), maxBytes), file);
+        }
+    }
+
+    // The next length bytes of the channel in a read-only heap buffer
+    private static ByteBuffer read(FileChannel channel, int length, Path file) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf) < 0) throw new IOException("Export shrank while reading: " + file);
+        }
+        buf.flip();
+        return buf.asReadOnlyBuffer();
+    }
+
+    public static MappedJsonReader open(Path file) throws IOException {
+        return new MappedJsonReader(map(file));
+    }
+
+    // Pre-encodes object keys for nextName(byte[][])
+    public static byte[][] keys(String... names) {
+        byte[][] keys = new byte[names.length][];
+        for (int i = 0; i < names.length; i++) keys[i] = names[i].getBytes(StandardCharsets.UTF_8);
+        return keys;
+    }
+
+    public int position() {
+        return pos;
+    }
+
+    public void position(int position) {
+        this.pos = position;
+    }
+
+    public ByteBuffer buffer() {
+        return buf;
+    }
+
+    // STRUCTURE
+
+    public void beginObject() {
+        expect('{');
+    }
+
+    public void endObject() {
+        skipCommaAndWhitespace();
+        expect('}');
+    }
+
+    public void beginArray() {
+        expect('[');
+    }
+
+    public void endArray() {
+        skipCommaAndWhitespace();
+        expect(']');
+    }
+
+    /**
+     * True if the current object or array has another entry. Consumes the
+     * separating comma, so a loop over hasNext() reads every entry.
+     */
+    public boolean hasNext() {
+        skipCommaAndWhitespace();
+        if (pos >= limit) throw error("Unexpected end of input");
+        byte b = buf.get(pos);
+        return b != '}' && b != ']';
+    }
+
+    // First byte of the next value ('{', '[', '"', 't', 'f', 'n' or a number)
+    public byte peek() {
+        skipWhitespace();
+        if (pos >= limit) throw error("Unexpected end of input");
+        return buf.get(pos);
+    }
+
+    // NAMES
+
+    /**
+     * Reads the next object key and returns its index in keys, or -1 if it is
+     * none of them. Nothing is decoded for the comparison.
+     */
+    public int nextName(byte[][] keys) {
+        skipWhitespace();
+        expect('"');
+        int start = pos;
+        int end = scanString();
+        expectColon();
+        int length = end - start;
+        for (int k = 0; k < keys.length; k++) {
+            byte[] key = keys[k];
+            if (key.length != length) continue;
+            int i = 0;
+            while (i < length && buf.get(start + i) == key[i]) i++;
+            if (i == length) return k;
+        }
+        return -1;
+    }
+
+    // Reads the next object key as a String
+    public String nextName() {
+        String name = nextString();
+        expectColon();
+        return name;
+    }
+
+    // VALUES
+
+    // Decodes the next string value; a JSON null is returned as null
+    public String nextString() {
+        skipWhitespace();
+        if (peekIs('n')) {
+            skipLiteral();
+            return null;
+        }
+        expect('"');
+        int start = pos;
+        int end = scanString();
+        return decode(start, end);
+    }
+
+    // Like nextString(), but repeated values share one String (field names, literals, ...)
+    public String nextPooledString() {
+        return names.dedupe(nextString());
+    }
+
+    // Next number as long (fractions are truncated); null or non-numbers give 0
+    public long nextLong() {
+        skipWhitespace();
+        int start = pos;
+        skipLiteral();
+        long value = 0;
+        boolean negative = false;
+        for (int i = start; i < pos; i++) {
+            byte b = buf.get(i);
+            if (b == '-' && i == start) negative = true;
+            else if (b >= '0' && b <= '9') value = value * 10 + (b - '0');
+            else break;
+        }
+        return negative ? -value : value;
+    }
+
+    // Next boolean; a JSON null (or any other literal) gives null
+    public Boolean nextBoolean() {
+        skipWhitespace();
+        byte b = pos < limit ? buf.get(pos) : 0;
+        skipValue();
+        if (b == 't') return Boolean.TRUE;
+        if (b == 'f') return Boolean.FALSE;
+        return null;
+    }
+
+    // Next string, boolean, number (Long or Double) or null
+    public Object nextScalar() {
+        byte b = peek();
+        if (b == '"' || b == 'n') return nextString();
+        if (b == 't' || b == 'f') return nextBoolean();
+        int start = pos;
+        skipLiteral();
+        String number = ascii(start, pos);
+        try {
+            return Long.valueOf(number);
+        } catch (NumberFormatException e) {
+            return Double.valueOf(number);
+        }
+    }
+
+    /**
+     * Skips the next value of any kind. Strings are only scanned for their
+     * closing quote and containers for their closing bracket.
+     */
+    public void skipValue() {
+        skipWhitespace();
+        if (pos >= limit) throw error("Unexpected end of input");
+        byte b = buf.get(pos);
+        if (b == '"') {
+            pos++;
+            scanString();
+        } else if (b == '{' || b == '[') {
+            int depth = 0;
+            while (pos < limit) {
+                byte c = buf.get(pos++);
+                if (c == '"') {
+                    scanString();
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    if (--depth == 0) return;
+                }
+            }
+            throw error("Unterminated " + (b == '{' ? "object" : "array"));
+        } else {
+            skipLiteral();
+        }
+    }
+
+    // INTERNALS
+
+    // Moves past the closing quote of a string whose opening quote was consumed, returns the end of its content
+    private int scanString() {
+        while (pos < limit) {
+            byte b = buf.get(pos++);
+            if (b == '"') return pos - 1;
+            if (b == '\\') pos++;
+        }
+        throw error("Unterminated string");
+    }
+
+    private void skipLiteral() {
+        while (pos < limit) {
+            byte b = buf.get(pos);
+            if (b == ',' || b == '}' || b == ']' || b == ' ' || b == '\n' || b == '\r' || b == '\t') return;
+            pos++;
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < limit) {
+            byte b = buf.get(pos);
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') return;
+            pos++;
+        }
+    }
+
+    private void skipCommaAndWhitespace() {
+        skipWhitespace();
+        if (pos < limit && buf.get(pos) == ',') {
+            pos++;
+            skipWhitespace();
+        }
+    }
+
+    private boolean peekIs(char c) {
+        return pos < limit && buf.get(pos) == c;
+    }
+
+    private void expect(char c) {
+        skipWhitespace();
+        if (pos >= limit || buf.get(pos) != c) {
+            throw error("Expected '" + c + "'" + (pos < limit ? " but found '" + (char) buf.get(pos) + "'" : ""));
+        }
+        pos++;
+    }
+
+    private void expectColon() {
+        expect(':');
+    }
+
+    // UTF-8 (and JSON escape) decoding of the bytes [start, end)
+    private String decode(int start, int end) {
+        int n = 0;
+        if (chars.length < end - start) chars = new char[Math.max(end - start, chars.length * 2)];
+        int i = start;
+        while (i < end) {
+            int b = buf.get(i++) & 0xFF;
+            if (b == '\\') {
+                byte e = buf.get(i++);
+                switch (e) {
+                    case 'n': chars[n++] = '\n'; break;
+                    case 't': chars[n++] = '\t'; break;
+                    case 'r': chars[n++] = '\r'; break;
+                    case 'b': chars[n++] = '\b'; break;
+                    case 'f': chars[n++] = '\f'; break;
+                    case 'u':
+                        chars[n++] = (char) Integer.parseInt(ascii(i, i + 4), 16);
+                        i += 4;
+                        break;
+                    default: chars[n++] = (char) e; break;
+                }
+            } else if (b < 0x80) {
+                chars[n++] = (char) b;
+            } else if (b < 0xE0) {
+                chars[n++] = (char) (((b & 0x1F) << 6) | (buf.get(i++) & 0x3F));
+            } else if (b < 0xF0) {
+                chars[n++] = (char) (((b & 0x0F) << 12) | ((buf.get(i++) & 0x3F) << 6) | (buf.get(i++) & 0x3F));
+            } else {
+                int cp = ((b & 0x07) << 18) | ((buf.get(i++) & 0x3F) << 12)
+                        | ((buf.get(i++) & 0x3F) << 6) | (buf.get(i++) & 0x3F);
+                chars[n++] = Character.highSurrogate(cp);
+                chars[n++] = Character.lowSurrogate(cp);
+            }
+        }
+        return new String(chars, 0, n);
+    }
+
+    private String ascii(int start, int end) {
+        StringBuilder sb = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) sb.append((char) buf.get(i));
+        return sb.toString();
+    }
+
+    private IllegalStateException error(String message) {
+        return new IllegalStateException(message + " at byte " + pos);
+    }
+}
@@ -0,0 +1,179 @@
+package utils;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONValue;
+import org.testng.annotations.Test;
+
+/**
+ * MappedJsonReader decoding: UTF-8 sequences of every length, JSON escapes
+ * (including \\u surrogate pairs), names matched on their raw bytes, and
+ * values skipped without decoding. Random strings are checked against what
+ * json-simple writes and reads.
+ */
+public class MappedJsonReaderTest {
+
+    // e acute (2 bytes), euro sign and CJK (3 bytes), emoji (4 bytes, a surrogate pair)
+    private static final String MULTI_BYTE = "café €5 日本 😀!";
+
+    private static MappedJsonReader reader(String json) {
+        return new MappedJsonReader(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void multiByteStrings() {
+        MappedJsonReader reader = reader("[\"" + MULTI_BYTE + "\", \"ü\", \"😀\"]");
+        reader.beginArray();
+        assertTrue(reader.hasNext());
+        assertEquals(reader.nextString(), MULTI_BYTE);
+        assertTrue(reader.hasNext());
+        assertEquals(reader.nextString(), "ü");
+        assertTrue(reader.hasNext());
+        assertEquals(reader.nextString(), "😀");
+        assertFalse(reader.hasNext());
+        reader.endArray();
+    }
+
+    @Test
+    public void stringLongerThanTheDecodeBuffer() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200; i++) sb.append(MULTI_BYTE);
+        MappedJsonReader reader = reader("{\"value\": \"" + sb + "\"}");
+        reader.beginObject();
+        assertTrue(reader.hasNext());
+        assertEquals(reader.nextName(), "value");
+        assertEquals(reader.nextString(), sb.toString());
+        reader.endObject();
+    }
+
+    @Test
+    public void escapes() {
+        MappedJsonReader reader = reader("[\"q\\\"b\\\\s\\/n\\nt\\tr\\rb\\bf\\f\", \"\\u00e9\\u20AC\", \"\\ud83d\\ude00\","
+                + " \"end\\\\\", null]");
+        reader.beginArray();
+        assertTrue(reader.hasNext());
+        assertEquals(reader.nextString(), "q\"b\\s/n\nt\tr\rb\bf\f");
+        assertTrue(reader.hasNext());
+        assertEquals(reader.nextString(), "é€");
+        assertTrue(reader.hasNext());
+        assertEquals(reader.nextString(), "😀");
+        assertTrue(reader.hasNext());
+        assertEquals(reader.nextString(), "end\\");
+        assertTrue(reader.hasNext());
+        assertNull(reader.nextString());
+        reader.endArray();
+    }
+
+    @Test
+    public void namesAreMatchedOnTheirBytes() {
+        byte[][] keys = MappedJsonReader.keys("name", "größe", "😀");
+        MappedJsonReader reader = reader("{\"größe\": 1, \"😀\": 2, \"größer\": 3, \"name\": 4}");
+        reader.beginObject();
+        assertTrue(reader.hasNext());
+        assertEquals(reader.nextName(keys), 1);
+        assertEquals(reader.nextLong(), 1);
+        assertTrue(reader.hasNext());
+        assertEquals(reader.nextName(keys), 2);
+        assertEquals(reader.nextLong(), 2);
+        assertTrue(reader.hasNext());
+        assertEquals(reader.nextName(keys), -1);
+        reader.skipValue();
+        assertTrue(reader.hasNext());
+        assertEquals(reader.nextName(keys), 0);
+        assertEquals(reader.nextLong(), 4);
+        reader.endObject();
+    }
+
+    @Test
+    public void skippedValuesWithQuotesAndBrackets() {
+        MappedJsonReader reader = reader("{\"skip\": {\"a\": \"}]\\\"{[\", \"b\": [\"\\\\\", \"€]\"]},"
+                + " \"also\": \"\\\\\\\"}\", \"keep\": \"é\",}");
+        byte[][] keys = MappedJsonReader.keys("keep");
+        reader.beginObject();
+        assertTrue(reader.hasNext());
+        assertEquals(reader.nextName(keys), -1);
+        reader.skipValue();
+        assertTrue(reader.hasNext());
+        assertEquals(reader.nextName(keys), -1);
+        reader.skipValue();
+        assertTrue(reader.hasNext());
+        assertEquals(reader.nextName(keys), 0);
+        assertEquals(reader.nextString(), "é");
+        assertFalse(reader.hasNext());
+        reader.endObject();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void randomStringsMatchJsonSimple() {
+        Random random = new Random(7);
+        JSONArray array = new JSONArray();
+        for (int i = 0; i < 500; i++) array.add(randomString(random));
+        String json = array.toJSONString();
+        List<Object> expected = (List<Object>) JSONValue.parse(json);
+
+        MappedJsonReader reader = reader(json);
+        List<Object> read = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) read.add(reader.nextString());
+        reader.endArray();
+        assertEquals(read, expected);
+        assertEquals(read, array);
+    }
+
+    @Test
+    public void fileReadIntoTheHeapOrMapped() throws IOException {
+        Path file = Files.createTempFile("mapped-reader", ".json");
+        try {
+            Files.write(file, ("{\"name\": \"" + MULTI_BYTE + "\"}").getBytes(StandardCharsets.UTF_8));
+            ByteBuffer heap = MappedJsonReader.map(file, Long.MAX_VALUE);
+            ByteBuffer mapped = MappedJsonReader.map(file, 0);
+            assertFalse(heap.isDirect());
+            assertTrue(mapped.isDirect());
+            for (ByteBuffer buf : new ByteBuffer[] {heap, mapped}) {
+                MappedJsonReader reader = new MappedJsonReader(buf);
+                reader.beginObject();
+                assertTrue(reader.hasNext());
+                assertEquals(reader.nextName(MappedJsonReader.keys("name")), 0);
+                assertEquals(reader.nextString(), MULTI_BYTE);
+                reader.endObject();
+            }
+        } finally {
+            // on Windows the mapped file stays locked until the mapping is collected
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    // Mix of ASCII, characters json-simple escapes, and 2, 3 and 4 byte UTF-8 sequences
+    private static String randomString(Random random) {
+        StringBuilder sb = new StringBuilder();
+        for (int n = random.nextInt(20); n > 0; n--) {
+            switch (random.nextInt(6)) {
+                case 0: sb.append((char) (' ' + random.nextInt(95))); break;
+                case 1: sb.append("\"\\/\n\t\r\b\f\u0001".charAt(random.nextInt(9))); break;
+                case 2: sb.append((char) (0x80 + random.nextInt(0x780))); break;
+                case 3: sb.append((char) (0x800 + random.nextInt(0xD000 - 0x800))); break;
+                case 4: sb.appendCodePoint(0x10000 + random.nextInt(0x10FFFF - 0x10000)); break;
+                default: sb.append("abc"); break;
+            }
+        }
+        return sb.toString();
+    }
+}
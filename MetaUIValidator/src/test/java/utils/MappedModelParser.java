@@ -0,0 +1,332 @@
+package utils;
+
+import java.util.Arrays;
+
+import utils.JsonParserUtil.Entity;
+import utils.JsonParserUtil.EnumLiteral;
+import utils.JsonParserUtil.Enumeration;
+import utils.JsonParserUtil.FileFolder;
+import utils.JsonParserUtil.Flow;
+import utils.JsonParserUtil.Resource;
+
+/**
+ * Builds the ProjectModel from a MappedJsonReader.
+ *
+ * The parse itself only reads the header (rev, hash, project) and records the
+ * byte range of every result -> resources section in a SectionIndex; sections
+ * are decoded later, when first asked for, by the readers below (registered in
+ * SectionRegistry). Keys are compared as raw bytes and everything the
+ * validators do not use is skipped without decoding.
+ */
+public class MappedModelParser {
+
+    private static final byte[][] ROOT_KEYS = MappedJsonReader.keys("result");
+    private static final byte[][] RESULT_KEYS = MappedJsonReader.keys("rev", "hash", "project", "resources");
+    private static final byte[][] PROJECT_KEYS = MappedJsonReader.keys("name");
+    // Entries every resource has; resourceKeys() appends them after a type's own keys
+    private static final String[] RESOURCE_KEYS = {"$absoluteRef", "changedVersion", "$ref", "$folderRef", "$displayName"};
+    private static final byte[][] ENTITY_KEYS = resourceKeys("name", "fields");
+    private static final byte[][] FIELD_KEYS = MappedJsonReader.keys("name", "type", "pk");
+    private static final byte[][] TYPE_KEYS = MappedJsonReader.keys("scalarType");
+    private static final byte[][] ENUM_KEYS = resourceKeys("name", "literals");
+    private static final byte[][] LITERAL_KEYS = MappedJsonReader.keys("constant");
+    private static final byte[][] FLOW_KEYS = resourceKeys("name", "input");
+    private static final byte[][] INPUT_KEYS = MappedJsonReader.keys("name", "type");
+    private static final byte[][] FOLDER_KEYS = resourceKeys("name", "isCitizenToolEnabled", "location");
+
+    private String projectName;
+    private long rev;
+    private String hash;
+
+    public static ProjectModel parse(MappedJsonReader r) {
+        SectionIndex index = new SectionIndex(r.buffer());
+        MappedModelParser parser = parseHeader(r, index);
+        return new ProjectModel(parser.projectName, parser.rev, parser.hash, index);
+    }
+
+    // Reads the header and fills the index with the section ranges
+    static MappedModelParser parseHeader(MappedJsonReader r, SectionIndex index) {
+        MappedModelParser parser = new MappedModelParser();
+        r.beginObject();
+        while (r.hasNext()) {
+            if (r.nextName(ROOT_KEYS) == 0) parser.readResult(r, index);
+            else r.skipValue();
+        }
+        r.endObject();
+        return parser;
+    }
+
+    /**
+     * Reads only result -> hash, stopping as soon as it is found. Values before it
+     * are skipped without decoding, so this is cheap even for very large exports.
+     */
+    public static String readHash(MappedJsonReader r) {
+        r.beginObject();
+        while (r.hasNext()) {
+            if (r.nextName(ROOT_KEYS) != 0) {
+                r.skipValue();
+                continue;
+            }
+            r.beginObject();
+            while (r.hasNext()) {
+                if (r.nextName(RESULT_KEYS) == 1) return r.nextString();
+                r.skipValue();
+            }
+            r.endObject();
+        }
+        return null;
+    }
+
+    // result -> rev, hash, project, resources
+    private void readResult(MappedJsonReader r, SectionIndex index) {
+        r.beginObject();
+        while (r.hasNext()) {
+            switch (r.nextName(RESULT_KEYS)) {
+                case 0:
+                    rev = r.nextLong();
+                    break;
+                case 1:
+                    hash = r.nextString();
+                    break;
+                case 2:
+                    readProject(r);
+                    break;
+                case 3:
+                    indexResources(r, index);
+                    break;
+                default:
+                    r.skipValue();
+                    break;
+            }
+        }
+        r.endObject();
+    }
+
+    private void readProject(MappedJsonReader r) {
+        if (r.peek() != '{') {
+            r.skipValue();
+            return;
+        }
+        r.beginObject();
+        while (r.hasNext()) {
+            if (r.nextName(PROJECT_KEYS) == 0) projectName = r.nextString();
+            else r.skipValue();
+        }
+        r.endObject();
+    }
+
+    // Records every section's byte range without decoding it
+    private static void indexResources(MappedJsonReader r, SectionIndex index) {
+        r.beginObject();
+        while (r.hasNext()) index.add(r.nextName(), r);
+        r.endObject();
+    }
+
+    //ENTITIES
+    static Entity readEntity(MappedJsonReader r) {
+        Entity entity = new Entity();
+        r.beginObject();
+        while (r.hasNext()) {
+            int key = r.nextName(ENTITY_KEYS);
+            switch (key) {
+                case 0:
+                    entity.entityName = r.nextString();
+                    break;
+                case 1:
+                    if (!beginArray(r)) break;
+                    while (r.hasNext()) readField(r, entity.fields);
+                    r.endArray();
+                    entity.fields.trimToSize();
+                    break;
+                default:
+                    if (!readResourceValue(r, key - 2, entity)) r.skipValue();
+                    break;
+            }
+        }
+        r.endObject();
+        return entity;
+    }
+
+    // Appends the field straight to the compact list, no Field object in between
+    private static void readField(MappedJsonReader r, FieldList fields) {
+        String name = null;
+        String scalarType = ScalarTypes.UNKNOWN;
+        boolean pk = false;
+        r.beginObject();
+        while (r.hasNext()) {
+            switch (r.nextName(FIELD_KEYS)) {
+                case 0:
+                    name = r.nextPooledString();
+                    break;
+                case 1:
+                    scalarType = readScalarType(r, scalarType);
+                    break;
+                case 2:
+                    pk = Boolean.TRUE.equals(r.nextBoolean());
+                    break;
+                default:
+                    r.skipValue();
+                    break;
+            }
+        }
+        r.endObject();
+        fields.add(name, scalarType, pk);
+    }
+
+    // type -> scalarType; a missing type object keeps the default
+    private static String readScalarType(MappedJsonReader r, String defaultType) {
+        if (r.peek() != '{') {
+            r.skipValue();
+            return defaultType;
+        }
+        String scalarType = null;
+        r.beginObject();
+        while (r.hasNext()) {
+            if (r.nextName(TYPE_KEYS) == 0) scalarType = r.nextString();
+            else r.skipValue();
+        }
+        r.endObject();
+        return scalarType;
+    }
+
+    //ENUMERATIONS
+    static Enumeration readEnumeration(MappedJsonReader r) {
+        Enumeration enm = new Enumeration();
+        r.beginObject();
+        while (r.hasNext()) {
+            int key = r.nextName(ENUM_KEYS);
+            switch (key) {
+                case 0:
+                    enm.name = r.nextString();
+                    break;
+                case 1:
+                    if (!beginArray(r)) break;
+                    while (r.hasNext()) {
+                        EnumLiteral lit = new EnumLiteral();
+                        r.beginObject();
+                        while (r.hasNext()) {
+                            if (r.nextName(LITERAL_KEYS) == 0) lit.constant = r.nextPooledString();
+                            else r.skipValue();
+                        }
+                        r.endObject();
+                        enm.literals.add(lit);
+                    }
+                    r.endArray();
+                    break;
+                default:
+                    if (!readResourceValue(r, key - 2, enm)) r.skipValue();
+                    break;
+            }
+        }
+        r.endObject();
+        return enm;
+    }
+
+    //FLOWS
+    static Flow readFlow(MappedJsonReader r) {
+        Flow flow = new Flow();
+        r.beginObject();
+        while (r.hasNext()) {
+            int key = r.nextName(FLOW_KEYS);
+            switch (key) {
+                case 0:
+                    flow.name = r.nextString();
+                    break;
+                case 1:
+                    if (!beginArray(r)) break;
+                    while (r.hasNext()) {
+                        String name = null;
+                        String scalarType = ScalarTypes.UNKNOWN;
+                        r.beginObject();
+                        while (r.hasNext()) {
+                            switch (r.nextName(INPUT_KEYS)) {
+                                case 0:
+                                    name = r.nextPooledString();
+                                    break;
+                                case 1:
+                                    scalarType = readScalarType(r, scalarType);
+                                    break;
+                                default:
+                                    r.skipValue();
+                                    break;
+                            }
+                        }
+                        r.endObject();
+                        flow.inputs.add(name, scalarType);
+                    }
+                    r.endArray();
+                    flow.inputs.trimToSize();
+                    break;
+                default:
+                    if (!readResourceValue(r, key - 2, flow)) r.skipValue();
+                    break;
+            }
+        }
+        r.endObject();
+        return flow;
+    }
+
+    //FILEFOLDERS
+    static FileFolder readFileFolder(MappedJsonReader r) {
+        FileFolder folder = new FileFolder();
+        r.beginObject();
+        while (r.hasNext()) {
+            int key = r.nextName(FOLDER_KEYS);
+            switch (key) {
+                case 0:
+                    folder.name = r.nextString();
+                    break;
+                case 1:
+                    folder.citizenToolEnabled = r.nextBoolean();
+                    break;
+                case 2:
+                    folder.location = r.nextString();
+                    break;
+                default:
+                    if (!readResourceValue(r, key - 3, folder)) r.skipValue();
+                    break;
+            }
+        }
+        r.endObject();
+        return folder;
+    }
+
+    private static byte[][] resourceKeys(String... ownKeys) {
+        String[] keys = Arrays.copyOf(ownKeys, ownKeys.length + RESOURCE_KEYS.length);
+        System.arraycopy(RESOURCE_KEYS, 0, keys, ownKeys.length, RESOURCE_KEYS.length);
+        return MappedJsonReader.keys(keys);
+    }
+
+    // Reads the value of RESOURCE_KEYS[key] into the resource; false if key is not a resource key
+    private static boolean readResourceValue(MappedJsonReader r, int key, Resource resource) {
+        switch (key) {
+            case 0:
+                resource.absoluteRef = r.nextString();
+                return true;
+            case 1:
+                resource.changedVersion = r.nextLong();
+                return true;
+            case 2:
+                resource.ref = r.nextString();
+                return true;
+            case 3:
+                resource.folderRef = r.nextPooledString();
+                return true;
+            case 4:
+                resource.displayName = r.nextString();
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // Opens an array, or skips the value (e.g. null) and returns false if it is not one
+    private static boolean beginArray(MappedJsonReader r) {
+        if (r.peek() != '[') {
+            r.skipValue();
+            return false;
+        }
+        r.beginArray();
+        return true;
+    }
+}
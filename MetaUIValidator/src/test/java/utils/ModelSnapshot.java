@@ -0,0 +1,301 @@
+package utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import utils.JsonParserUtil.Entity;
+import utils.JsonParserUtil.EnumLiteral;
+import utils.JsonParserUtil.Enumeration;
+import utils.JsonParserUtil.FileFolder;
+import utils.JsonParserUtil.Flow;
+import utils.JsonParserUtil.Resource;
+
+/**
+ * Compact binary copy of a parsed ProjectModel, stored next to the export
+ * as "<export>.snapshot".
+ *
+ * The snapshot records the export's result.hash. It is only used when that hash
+ * still matches the export, otherwise it is ignored and rewritten after parsing.
+ *
+ * Layout: magic, format version, hash, rev, then a table of distinct strings
+ * (names and scalar types repeat a lot) followed by the four sections, where
+ * every string is written as a varint index into that table.
+ */
+public class ModelSnapshot {
+
+    private static final int MAGIC = 0x4D55564D; // "MUVM"
+    private static final int FORMAT_VERSION = 3;
+
+    public static Path snapshotPath(Path jsonFile) {
+        return jsonFile.resolveSibling(jsonFile.getFileName() + ".snapshot");
+    }
+
+    /**
+     * Loads the snapshot if it exists and was written for the given export hash.
+     * Returns null if it is missing, stale, or unreadable.
+     */
+    public static ProjectModel load(Path snapshot, String expectedHash) {
+        if (expectedHash == null || !Files.isRegularFile(snapshot)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                System.out.println(" Snapshot has an old format, ignoring: " + snapshot);
+                return null;
+            }
+            String hash = in.readUTF();
+            if (!expectedHash.equals(hash)) {
+                System.out.println(" Snapshot hash " + hash + " does not match export hash " + expectedHash + ", ignoring it");
+                return null;
+            }
+            long rev = in.readLong();
+
+            String[] strings = new String[readVarInt(in)];
+            byte[] bytes = new byte[256];
+            for (int i = 0; i < strings.length; i++) {
+                int length = readVarInt(in);
+                if (bytes.length < length) bytes = new byte[length];
+                in.readFully(bytes, 0, length);
+                strings[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+            }
+            StringReader s = new StringReader(in, strings);
+            String projectName = s.read();
+
+            List<Entity> entities = new ArrayList<>();
+            for (int i = readVarInt(in); i > 0; i--) {
+                Entity entity = new Entity();
+                entity.entityName = s.read();
+                s.readResource(entity);
+                for (int f = readVarInt(in); f > 0; f--) {
+                    String name = s.read();
+                    entity.fields.add(name, s.read(), in.readBoolean());
+                }
+                entity.fields.trimToSize();
+                entities.add(entity);
+            }
+            List<Enumeration> enumerations = new ArrayList<>();
+            for (int i = readVarInt(in); i > 0; i--) {
+                Enumeration enm = new Enumeration();
+                enm.name = s.read();
+                s.readResource(enm);
+                for (int l = readVarInt(in); l > 0; l--) {
+                    EnumLiteral lit = new EnumLiteral();
+                    lit.constant = s.read();
+                    enm.literals.add(lit);
+                }
+                enumerations.add(enm);
+            }
+            List<Flow> flows = new ArrayList<>();
+            for (int i = readVarInt(in); i > 0; i--) {
+                Flow flow = new Flow();
+                flow.name = s.read();
+                s.readResource(flow);
+                for (int n = readVarInt(in); n > 0; n--) {
+                    String name = s.read();
+                    flow.inputs.add(name, s.read());
+                }
+                flow.inputs.trimToSize();
+                flows.add(flow);
+            }
+            List<FileFolder> fileFolders = new ArrayList<>();
+            for (int i = readVarInt(in); i > 0; i--) {
+                FileFolder folder = new FileFolder();
+                folder.name = s.read();
+                byte citizen = in.readByte();
+                folder.citizenToolEnabled = citizen < 0 ? null : citizen == 1;
+                folder.location = s.read();
+                s.readResource(folder);
+                fileFolders.add(folder);
+            }
+            return new ProjectModel(projectName, rev, hash, entities, enumerations, flows, fileFolders);
+        } catch (Exception e) {
+            System.out.println(" Unable to read snapshot " + snapshot + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the model's snapshot. The file is written under a temporary name and
+     * then moved into place, so a concurrent run never sees a half-written snapshot.
+     */
+    public static void write(ProjectModel model, Path snapshot) throws IOException {
+        // String table in first-use order
+        Map<String, Integer> table = new LinkedHashMap<>();
+        intern(table, model.getProjectName());
+        for (Entity entity : model.getEntities()) {
+            intern(table, entity.entityName);
+            internResource(table, entity);
+            for (int f = 0; f < entity.fields.size(); f++) {
+                intern(table, entity.fields.name(f));
+                intern(table, entity.fields.scalarType(f));
+            }
+        }
+        for (Enumeration enm : model.getEnumerations()) {
+            intern(table, enm.name);
+            internResource(table, enm);
+            for (EnumLiteral lit : enm.literals) intern(table, lit.constant);
+        }
+        for (Flow flow : model.getFlows()) {
+            intern(table, flow.name);
+            internResource(table, flow);
+            for (int n = 0; n < flow.inputs.size(); n++) {
+                intern(table, flow.inputs.name(n));
+                intern(table, flow.inputs.scalarType(n));
+            }
+        }
+        for (FileFolder folder : model.getFileFolders()) {
+            intern(table, folder.name);
+            intern(table, folder.location);
+            internResource(table, folder);
+        }
+
+        Path tmp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp" + System.nanoTime());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(model.getHash());
+            out.writeLong(model.getRev());
+
+            writeVarInt(out, table.size());
+            for (String value : table.keySet()) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, bytes.length);
+                out.write(bytes);
+            }
+            writeRef(out, table, model.getProjectName());
+
+            writeVarInt(out, model.getEntities().size());
+            for (Entity entity : model.getEntities()) {
+                writeRef(out, table, entity.entityName);
+                writeResource(out, table, entity);
+                writeVarInt(out, entity.fields.size());
+                for (int f = 0; f < entity.fields.size(); f++) {
+                    writeRef(out, table, entity.fields.name(f));
+                    writeRef(out, table, entity.fields.scalarType(f));
+                    out.writeBoolean(entity.fields.isPk(f));
+                }
+            }
+            writeVarInt(out, model.getEnumerations().size());
+            for (Enumeration enm : model.getEnumerations()) {
+                writeRef(out, table, enm.name);
+                writeResource(out, table, enm);
+                writeVarInt(out, enm.literals.size());
+                for (EnumLiteral lit : enm.literals) writeRef(out, table, lit.constant);
+            }
+            writeVarInt(out, model.getFlows().size());
+            for (Flow flow : model.getFlows()) {
+                writeRef(out, table, flow.name);
+                writeResource(out, table, flow);
+                writeVarInt(out, flow.inputs.size());
+                for (int n = 0; n < flow.inputs.size(); n++) {
+                    writeRef(out, table, flow.inputs.name(n));
+                    writeRef(out, table, flow.inputs.scalarType(n));
+                }
+            }
+            writeVarInt(out, model.getFileFolders().size());
+            for (FileFolder folder : model.getFileFolders()) {
+                writeRef(out, table, folder.name);
+                out.writeByte(folder.citizenToolEnabled == null ? -1 : folder.citizenToolEnabled ? 1 : 0);
+                writeRef(out, table, folder.location);
+                writeResource(out, table, folder);
+            }
+        }
+        try {
+            Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // Strings are stored as index + 1 into the table, 0 stands for null
+    private static void intern(Map<String, Integer> table, String value) {
+        if (value != null && !table.containsKey(value)) table.put(value, table.size());
+    }
+
+    private static void writeRef(DataOutputStream out, Map<String, Integer> table, String value) throws IOException {
+        writeVarInt(out, value == null ? 0 : table.get(value) + 1);
+    }
+
+    private static void writeResource(DataOutputStream out, Map<String, Integer> table, Resource resource) throws IOException {
+        writeRef(out, table, resource.absoluteRef);
+        writeVarLong(out, resource.changedVersion);
+        writeRef(out, table, resource.ref);
+        writeRef(out, table, resource.folderRef);
+        writeRef(out, table, resource.displayName);
+    }
+
+    private static void internResource(Map<String, Integer> table, Resource resource) {
+        intern(table, resource.absoluteRef);
+        intern(table, resource.ref);
+        intern(table, resource.folderRef);
+        intern(table, resource.displayName);
+    }
+
+    private static final class StringReader {
+        final DataInputStream in;
+        final String[] strings;
+
+        StringReader(DataInputStream in, String[] strings) {
+            this.in = in;
+            this.strings = strings;
+        }
+
+        String read() throws IOException {
+            int ref = readVarInt(in);
+            return ref == 0 ? null : strings[ref - 1];
+        }
+
+        void readResource(Resource resource) throws IOException {
+            resource.absoluteRef = read();
+            resource.changedVersion = readVarLong(in);
+            resource.ref = read();
+            resource.folderRef = read();
+            resource.displayName = read();
+        }
+    }
+
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint in snapshot");
+    }
+
+    static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint in snapshot");
+    }
+}
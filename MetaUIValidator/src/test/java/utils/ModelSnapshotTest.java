@@ -0,0 +1,131 @@
+package utils;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import utils.JsonParserUtil.ParseMode;
+
+/**
+ * ModelSnapshot round trip on the sample export and a synthetic one: the
+ * restored model has the same content as a fresh parse, and a snapshot with
+ * another hash, another format version or a damaged body is not used.
+ * Works on copies in a temporary directory, so no snapshot is left next to
+ * the checked-in export.
+ */
+public class ModelSnapshotTest {
+
+    private static final Path SAMPLE = Paths.get(System.getProperty("user.dir"),
+            "src", "test", "resources", "Jsonfiles", "QAChallengeJSON.json");
+
+    private Path dir;
+
+    @BeforeClass
+    public void createDirectory() throws IOException {
+        dir = Files.createTempDirectory("model-snapshot");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void sampleExportRoundTrip() throws IOException {
+        roundTrip(Files.copy(SAMPLE, dir.resolve("sample.json")));
+    }
+
+    @Test
+    public void syntheticExportRoundTrip() throws IOException {
+        roundTrip(SyntheticExport.write(dir.resolve("synthetic.json"), 120, 12));
+    }
+
+    @Test
+    public void staleHashIsRejected() throws IOException {
+        Path export = Files.copy(SAMPLE, dir.resolve("stale-hash.json"));
+        Path snapshot = writeSnapshot(export);
+        String hash = parse(export, ParseMode.MAPPED).getHash();
+        assertNotNull(ModelSnapshot.load(snapshot, hash));
+        assertNull(ModelSnapshot.load(snapshot, hash + "-edited"));
+        assertNull(ModelSnapshot.load(snapshot, null));
+    }
+
+    @Test
+    public void otherFormatVersionIsRejected() throws IOException {
+        Path export = Files.copy(SAMPLE, dir.resolve("old-format.json"));
+        Path snapshot = writeSnapshot(export);
+        String hash = parse(export, ParseMode.MAPPED).getHash();
+
+        // the version is the int after the magic number
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[7]--;
+        Files.write(snapshot, bytes);
+        assertNull(ModelSnapshot.load(snapshot, hash));
+
+        // loading the export parses it again and replaces the snapshot
+        ProjectModel model = JsonParserUtil.loadProjectModel(export.toString());
+        assertTrue(ParserBenchmark.sameContent(parse(export, ParseMode.TREE), model));
+        assertNotNull(ModelSnapshot.load(snapshot, hash));
+    }
+
+    @Test
+    public void truncatedSnapshotIsRejected() throws IOException {
+        Path export = Files.copy(SAMPLE, dir.resolve("truncated.json"));
+        Path snapshot = writeSnapshot(export);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length / 2));
+        assertNull(ModelSnapshot.load(snapshot, parse(export, ParseMode.MAPPED).getHash()));
+    }
+
+    @Test
+    public void hashBeyondTheProbedBytesIsFound() throws IOException {
+        Path export = dir.resolve("hash-last.json");
+        Files.write(export, ("{\"result\": {\"resources\": {\"entities\": [{\"name\": \"E\", \"fields\": []}]},"
+                + " \"hash\": \"late-hash\"}}").getBytes(StandardCharsets.UTF_8));
+        long size = Files.size(export);
+        // the whole file, a prefix ending inside the resources, and one ending inside the hash itself
+        for (int probe : new int[] {(int) size, 20, (int) size - 5}) {
+            assertEquals(JsonParserUtil.readHash(export, MappedJsonReader.head(export, probe), size), "late-hash");
+        }
+        Path sample = Files.copy(SAMPLE, dir.resolve("probe.json"));
+        assertEquals(JsonParserUtil.readHash(sample, MappedJsonReader.head(sample, 64), Files.size(sample)),
+                parse(sample, ParseMode.TREE).getHash());
+    }
+
+    // Writes the snapshot of a mapped parse and checks it restores the same model as a tree parse
+    private static void roundTrip(Path export) throws IOException {
+        Path snapshot = writeSnapshot(export);
+        ProjectModel fresh = parse(export, ParseMode.TREE);
+        ProjectModel restored = ModelSnapshot.load(snapshot, fresh.getHash());
+        assertNotNull(restored, "snapshot not loaded");
+        assertTrue(ParserBenchmark.sameContent(fresh, restored), "restored model differs from a fresh parse");
+        assertFalse(restored.getEntities().isEmpty());
+    }
+
+    private static Path writeSnapshot(Path export) throws IOException {
+        Path snapshot = ModelSnapshot.snapshotPath(export);
+        ModelSnapshot.write(parse(export, ParseMode.MAPPED), snapshot);
+        return snapshot;
+    }
+
+    private static ProjectModel parse(Path export, ParseMode mode) {
+        return ParserBenchmark.quietly(export, mode);
+    }
+}
@@ -0,0 +1,24 @@
+package utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deduplicates repeated names (field names, input names, literals) within one
+ * model, so that e.g. thousands of "id" fields share a single String. Safe to
+ * share between the threads of a parallel parse.
+ */
+public final class NamePool {
+
+    private final Map<String, String> pool = new ConcurrentHashMap<>();
+
+    public String dedupe(String name) {
+        if (name == null) return null;
+        String pooled = pool.putIfAbsent(name, name);
+        return pooled != null ? pooled : name;
+    }
+
+    public int size() {
+        return pool.size();
+    }
+}
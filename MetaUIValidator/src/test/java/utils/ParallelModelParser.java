@@ -0,0 +1,104 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import utils.JsonParserUtil.Resource;
+
+/**
+ * Parallel variant of the mapped parse: decodes every result -> resources
+ * section up front on a fork/join pool.
+ *
+ * 1. MappedModelParser reads the header and the byte range of each section.
+ * 2. One task per section pre-scans its array for the byte range of every
+ *    element (SectionIndex.elements, a skip-only scan).
+ * 3. The element ranges are split in halves until a chunk is small enough and
+ *    the chunks are decoded concurrently, each with its own MappedJsonReader
+ *    over the shared read-only buffer.
+ * 4. Chunk results are joined left to right, so every section list is in
+ *    document order and identical to the sequential parse.
+ */
+public class ParallelModelParser {
+
+    // Elements below this count are decoded by a single task
+    static final int CHUNK_ELEMENTS = 64;
+
+    public static ProjectModel parse(MappedJsonReader r, ForkJoinPool pool) {
+        ProjectModel model = MappedModelParser.parse(r);
+        SectionIndex index = model.index();
+        List<SectionTask> tasks = new ArrayList<>();
+        for (String section : index.sections()) {
+            tasks.add(new SectionTask(index, SectionRegistry.decoderFor(section)));
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+        for (SectionTask task : tasks) model.putSection(task.decoder.section(), task.join());
+        return model;
+    }
+
+    // Threads for -Dparser.mode=parallel: -Dparser.threads, or one per core
+    static int threadsFromSystemProperty() {
+        return Integer.getInteger("parser.threads", Runtime.getRuntime().availableProcessors());
+    }
+
+    private static final class SectionTask extends RecursiveTask<List<Resource>> {
+        private static final long serialVersionUID = 1L;
+
+        final SectionIndex index;
+        final SectionDecoder<? extends Resource> decoder;
+
+        SectionTask(SectionIndex index, SectionDecoder<? extends Resource> decoder) {
+            this.index = index;
+            this.decoder = decoder;
+        }
+
+        @Override
+        protected List<Resource> compute() {
+            int[] bounds = index.elements(decoder.section());
+            return new ChunkTask(index, decoder, bounds, 0, bounds.length / 2).compute();
+        }
+    }
+
+    // Decodes elements [from, to) of a section, splitting while the chunk is large
+    private static final class ChunkTask extends RecursiveTask<List<Resource>> {
+        private static final long serialVersionUID = 1L;
+
+        final SectionIndex index;
+        final SectionDecoder<? extends Resource> decoder;
+        final int[] bounds;
+        final int from;
+        final int to;
+
+        ChunkTask(SectionIndex index, SectionDecoder<? extends Resource> decoder, int[] bounds, int from, int to) {
+            this.index = index;
+            this.decoder = decoder;
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Resource> compute() {
+            if (to - from <= CHUNK_ELEMENTS) {
+                List<Resource> items = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    items.add(decoder.decode(index.reader(bounds[2 * i], bounds[2 * i + 1])));
+                }
+                return items;
+            }
+            int mid = (from + to) >>> 1;
+            ChunkTask right = new ChunkTask(index, decoder, bounds, mid, to);
+            right.fork();
+            List<Resource> items = new ChunkTask(index, decoder, bounds, from, mid).compute();
+            items.addAll(right.join());
+            return items;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package utils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+
+import utils.JsonParserUtil.ParseMode;
+import utils.JsonParserUtil.Resource;
+
+/**
+ * Scaling of -Dparser.mode=parallel over the number of fork/join threads.
+ *
+ * The baseline is the sequential MAPPED parse with every section decoded (the
+ * parallel mode decodes all of them up front). Each thread count is checked to
+ * produce exactly the sequential model. Run with e.g.
+ *   java -Xmx2g -cp target/test-classes:... utils.ParallelParseBenchmark 4000
+ * (entity count, 50 fields each). Speedups are bounded by the cores of the machine
+ * (printed first) and by the sequential header and pre-scan passes.
+ */
+public class ParallelParseBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16};
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int entityCount = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+        Path dir = Paths.get(System.getProperty("user.dir"), "target", "bench");
+        Path file = SyntheticExport.write(dir.resolve("synthetic-" + entityCount + ".json"), entityCount, 50);
+        double sizeMb = Files.size(file) / (1024.0 * 1024.0);
+        System.out.printf("Export: %s (%.1f MB), %d cores available%n", file, sizeMb,
+                Runtime.getRuntime().availableProcessors());
+
+        ProjectModel reference = sequential(file);
+        long baseline = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            sequential(file);
+            baseline = Math.min(baseline, System.nanoTime() - start);
+        }
+        System.out.printf("%-12s %10s %10s %10s%n", "threads", "ms", "MB/s", "speedup");
+        System.out.printf("%-12s %10.1f %10.1f %10s%n", "sequential", baseline / 1e6, sizeMb / (baseline / 1e9), "1.00");
+
+        for (int threads : THREADS) {
+            System.setProperty("parser.threads", String.valueOf(threads));
+            long best = Long.MAX_VALUE;
+            for (int run = 0; run <= RUNS; run++) {
+                long start = System.nanoTime();
+                ProjectModel model = ParserBenchmark.quietly(file, ParseMode.PARALLEL);
+                long elapsed = System.nanoTime() - start;
+                if (!ParserBenchmark.sameContent(reference, model) || !sameSections(reference, model)) {
+                    throw new IllegalStateException("Parallel parse with " + threads + " threads differs from sequential");
+                }
+                if (run > 0) best = Math.min(best, elapsed); // run 0 warms up the pool's threads
+            }
+            System.out.printf("%-12d %10.1f %10.1f %10.2f%n", threads, best / 1e6, sizeMb / (best / 1e9),
+                    (double) baseline / best);
+        }
+    }
+
+    // Sequential mapped parse with every section decoded
+    private static ProjectModel sequential(Path file) {
+        ProjectModel model = ParserBenchmark.quietly(file, ParseMode.MAPPED);
+        for (String section : model.getSectionNames()) model.getSection(section);
+        return model;
+    }
+
+    // Same sections with the same number of resources and the same refs, in order
+    private static boolean sameSections(ProjectModel a, ProjectModel b) {
+        if (!a.getSectionNames().equals(b.getSectionNames())) return false;
+        for (String section : a.getSectionNames()) {
+            List<? extends Resource> x = a.getSection(section), y = b.getSection(section);
+            if (x.size() != y.size()) return false;
+            for (int i = 0; i < x.size(); i++) {
+                if (!Objects.equals(x.get(i).absoluteRef, y.get(i).absoluteRef)) return false;
+            }
+        }
+        return true;
+    }
+}
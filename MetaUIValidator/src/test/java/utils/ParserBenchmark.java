@@ -0,0 +1,165 @@
+package utils;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import utils.JsonParserUtil.Entity;
+import utils.JsonParserUtil.Enumeration;
+import utils.JsonParserUtil.FileFolder;
+import utils.JsonParserUtil.Flow;
+import utils.JsonParserUtil.ParseMode;
+import utils.JsonParserUtil.Resource;
+
+/**
+ * Compares the parse modes on synthetic exports of growing size.
+ *
+ * For every file and mode it reports throughput (MB/s), the peak old-generation
+ * heap during the parse (what a big export really costs) and the heap retained
+ * by the resulting model. Run with e.g.
+ *   java -Xmx2g -cp target/test-classes:... utils.ParserBenchmark 250 1000 4000
+ * where the arguments are entity counts (50 fields each).
+ */
+public class ParserBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int[] entityCounts = args.length > 0 ? new int[args.length] : new int[] {250, 1000, 4000};
+        for (int i = 0; i < args.length; i++) entityCounts[i] = Integer.parseInt(args[i]);
+
+        Path dir = Paths.get(System.getProperty("user.dir"), "target", "bench");
+        System.out.printf("%-10s %-10s %10s %10s %14s %14s%n",
+                "entities", "mode", "size MB", "MB/s", "peak old MB", "retained MB");
+
+        for (int entityCount : entityCounts) {
+            Path file = SyntheticExport.write(dir.resolve("synthetic-" + entityCount + ".json"), entityCount, 50);
+            double sizeMb = Files.size(file) / (1024.0 * 1024.0);
+            ProjectModel reference = null;
+
+            for (ParseMode mode : ParseMode.values()) {
+                // one warm-up run so the JIT does not dominate the first mode
+                quietly(file, mode);
+
+                long before = usedHeapAfterGc();
+                resetPeaks();
+                long start = System.nanoTime();
+                ProjectModel model = quietly(file, mode);
+                long elapsed = System.nanoTime() - start;
+                long peakOld = peakOldGen();
+                long retained = usedHeapAfterGc() - before;
+
+                if (reference == null) {
+                    reference = model;
+                } else if (!sameContent(reference, model)) {
+                    throw new IllegalStateException(mode + " produced a different model for " + file);
+                }
+                System.out.printf("%-10d %-10s %10.1f %10.1f %14.1f %14.1f%n", entityCount, mode, sizeMb,
+                        sizeMb / (elapsed / 1e9), peakOld / 1048576.0, retained / 1048576.0);
+            }
+        }
+    }
+
+    // Parses (and decodes the four main sections) with System.out silenced so log lines are not timed
+    static ProjectModel quietly(Path file, ParseMode mode) {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        }));
+        try {
+            ProjectModel model = JsonParserUtil.loadProjectModel(file.toString(), mode);
+            // sections are decoded lazily in MAPPED mode, so decode them inside the timed part
+            model.getEntities();
+            model.getEnumerations();
+            model.getFlows();
+            model.getFileFolders();
+            return model;
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) System.gc();
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    static void resetPeaks() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+        }
+    }
+
+    // Peak usage of the tenured pool(s) since the last resetPeaks()
+    static long peakOldGen() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            String name = pool.getName();
+            if (pool.getType() == MemoryType.HEAP && (name.contains("Old") || name.contains("Tenured"))) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    // Field-by-field comparison of two models (header and all four sections)
+    static boolean sameContent(ProjectModel a, ProjectModel b) {
+        if (a.getRev() != b.getRev() || !eq(a.getHash(), b.getHash()) || !eq(a.getProjectName(), b.getProjectName())) {
+            return false;
+        }
+        List<Entity> ea = a.getEntities(), eb = b.getEntities();
+        if (ea.size() != eb.size()) return false;
+        for (int i = 0; i < ea.size(); i++) {
+            Entity x = ea.get(i), y = eb.get(i);
+            if (!eq(x.entityName, y.entityName) || !sameResource(x, y) || x.fields.size() != y.fields.size()) return false;
+            for (int f = 0; f < x.fields.size(); f++) {
+                if (!eq(x.fields.get(f).name, y.fields.get(f).name)
+                        || !eq(x.fields.get(f).scalarType, y.fields.get(f).scalarType)
+                        || x.fields.get(f).pk != y.fields.get(f).pk) return false;
+            }
+        }
+        List<Enumeration> na = a.getEnumerations(), nb = b.getEnumerations();
+        if (na.size() != nb.size()) return false;
+        for (int i = 0; i < na.size(); i++) {
+            Enumeration x = na.get(i), y = nb.get(i);
+            if (!eq(x.name, y.name) || !sameResource(x, y) || x.literals.size() != y.literals.size()) return false;
+            for (int l = 0; l < x.literals.size(); l++) {
+                if (!eq(x.literals.get(l).constant, y.literals.get(l).constant)) return false;
+            }
+        }
+        List<Flow> fa = a.getFlows(), fb = b.getFlows();
+        if (fa.size() != fb.size()) return false;
+        for (int i = 0; i < fa.size(); i++) {
+            Flow x = fa.get(i), y = fb.get(i);
+            if (!eq(x.name, y.name) || !sameResource(x, y) || x.inputs.size() != y.inputs.size()) return false;
+            for (int n = 0; n < x.inputs.size(); n++) {
+                if (!eq(x.inputs.get(n).name, y.inputs.get(n).name)
+                        || !eq(x.inputs.get(n).scalarType, y.inputs.get(n).scalarType)) return false;
+            }
+        }
+        List<FileFolder> da = a.getFileFolders(), db = b.getFileFolders();
+        if (da.size() != db.size()) return false;
+        for (int i = 0; i < da.size(); i++) {
+            FileFolder x = da.get(i), y = db.get(i);
+            if (!eq(x.name, y.name) || !sameResource(x, y) || !eq(x.citizenToolEnabled, y.citizenToolEnabled)
+                    || !eq(x.location, y.location)) return false;
+        }
+        return true;
+    }
+
+    private static boolean sameResource(Resource a, Resource b) {
+        return eq(a.absoluteRef, b.absoluteRef) && a.changedVersion == b.changedVersion
+                && eq(a.ref, b.ref) && eq(a.folderRef, b.folderRef) && eq(a.displayName, b.displayName);
+    }
+
+    private static boolean eq(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,201 @@
+package utils;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import utils.JsonParserUtil.Entity;
+import utils.JsonParserUtil.Enumeration;
+import utils.JsonParserUtil.FileFolder;
+import utils.JsonParserUtil.Flow;
+import utils.JsonParserUtil.Resource;
+
+/**
+ * Parsed view of one JSON export: the project header (rev, hash, project name)
+ * and the result -> resources sections.
+ *
+ * Sections are decoded lazily: the first call to getSection (or getEntities,
+ * getFlows, ...) runs the section's decoder from SectionRegistry over that
+ * section's bytes and caches the result. Runs that never ask for a section
+ * never pay for it.
+ *
+ * Every decoded section is also added to a ResourceIndex, so resources can be
+ * looked up by $ref / $absoluteRef (resolve) and folders listed by $folderRef
+ * (getChildren) without scanning the lists.
+ *
+ * A model is built once per export by JsonParserUtil and shared by every test
+ * method, so it is read-only: the section lists cannot be modified.
+ */
+public class ProjectModel {
+
+    private final String projectName;
+    private final long rev;
+    private final String hash;
+
+    // Decoded sections by name
+    private final Map<String, List<? extends Resource>> sections = new ConcurrentHashMap<>();
+    private final ResourceIndex refs = new ResourceIndex();
+
+    // Where undecoded sections come from: the index, or the export to index on first use
+    private volatile SectionIndex index;
+    private volatile Path exportFile;
+
+    ProjectModel(String projectName, long rev, String hash, SectionIndex index) {
+        this.projectName = projectName;
+        this.rev = rev;
+        this.hash = hash;
+        this.index = index;
+    }
+
+    // Model whose four main sections were already decoded (tree/streaming parse, snapshot)
+    ProjectModel(String projectName, long rev, String hash,
+                 List<Entity> entities, List<Enumeration> enumerations,
+                 List<Flow> flows, List<FileFolder> fileFolders) {
+        this(projectName, rev, hash, null);
+        putSection(SectionRegistry.ENTITIES.section(), entities);
+        putSection(SectionRegistry.ENUMERATIONS.section(), enumerations);
+        putSection(SectionRegistry.FLOWS.section(), flows);
+        putSection(SectionRegistry.FILE_FOLDERS.section(), fileFolders);
+    }
+
+    // Adds an already decoded section (eager parsers, parallel parse)
+    void putSection(String section, List<? extends Resource> resources) {
+        refs.add(section, resources);
+        sections.put(section, Collections.unmodifiableList(resources));
+    }
+
+    // Export the remaining sections are read from when no index was built while parsing
+    void attachExport(Path exportFile) {
+        this.exportFile = exportFile;
+    }
+
+    // result -> project -> name
+    public String getProjectName() {
+        return projectName;
+    }
+
+    // result -> rev
+    public long getRev() {
+        return rev;
+    }
+
+    // result -> hash (content hash of the export)
+    public String getHash() {
+        return hash;
+    }
+
+    public List<Entity> getEntities() {
+        return getSection(SectionRegistry.ENTITIES);
+    }
+
+    public List<Enumeration> getEnumerations() {
+        return getSection(SectionRegistry.ENUMERATIONS);
+    }
+
+    public List<Flow> getFlows() {
+        return getSection(SectionRegistry.FLOWS);
+    }
+
+    public List<FileFolder> getFileFolders() {
+        return getSection(SectionRegistry.FILE_FOLDERS);
+    }
+
+    /**
+     * Returns the section decoded with the given decoder, decoding it on first use.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Resource> List<T> getSection(SectionDecoder<T> decoder) {
+        return (List<T>) sections.computeIfAbsent(decoder.section(), name -> {
+            List<T> resources = index().decode(decoder);
+            refs.add(name, resources);
+            return Collections.unmodifiableList(resources);
+        });
+    }
+
+    // Section by name (e.g. "rests", "dialogs") with its registered decoder
+    public List<? extends Resource> getSection(String section) {
+        return getSection(SectionRegistry.decoderFor(section));
+    }
+
+    // Names of all sections in the export, in document order
+    public Set<String> getSectionNames() {
+        return index().sections();
+    }
+
+    // Sections decoded so far
+    public Set<String> getDecodedSections() {
+        return Collections.unmodifiableSet(sections.keySet());
+    }
+
+    /**
+     * Resource with the given $ref or $absoluteRef (e.g. "fld:pck/SampleModel"),
+     * or null. Only the section the ref's prefix points to is decoded; refs with
+     * an unknown prefix decode the remaining sections until one matches.
+     */
+    public Resource resolve(String ref) {
+        Resource resource = refs.get(ref);
+        if (resource != null) return resource;
+        String section = ResourceIndex.sectionFor(ref);
+        if (section != null) {
+            getSection(section);
+        } else {
+            for (String name : getSectionNames()) {
+                getSection(name);
+                if (refs.get(ref) != null) break;
+            }
+        }
+        return refs.get(ref);
+    }
+
+    // Like resolve(ref), null also if the resource is not of the given type
+    public <T extends Resource> T resolve(String ref, Class<T> type) {
+        Resource resource = resolve(ref);
+        return type.isInstance(resource) ? type.cast(resource) : null;
+    }
+
+    // Folder that owns the resource (its $folderRef), or null for top-level resources
+    public Resource getFolder(Resource resource) {
+        return resource.folderRef != null ? resolve(resource.folderRef) : null;
+    }
+
+    // Resources of one section inside the folder, e.g. getChildren(SectionRegistry.ENTITIES, "fld:pck/SampleModel")
+    @SuppressWarnings("unchecked")
+    public <T extends Resource> List<T> getChildren(SectionDecoder<T> section, String folderRef) {
+        getSection(section);
+        return (List<T>) (List<?>) refs.children(section.section(), folderRef);
+    }
+
+    // Resources of every section inside the folder; decodes all sections on first use
+    public List<Resource> getChildren(String folderRef) {
+        for (String name : getSectionNames()) getSection(name);
+        return refs.children(folderRef);
+    }
+
+    SectionIndex index() {
+        SectionIndex current = index;
+        if (current != null) return current;
+        synchronized (this) {
+            if (index == null) {
+                if (exportFile == null) throw new IllegalStateException("Model of " + projectName + " has no export to read sections from");
+                try {
+                    index = SectionIndex.scan(exportFile);
+                } catch (Exception e) {
+                    throw new RuntimeException("Failed to index sections of " + exportFile, e);
+                }
+            }
+            return index;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Project " + projectName + " (rev " + rev + ", hash " + hash + ")");
+        for (Map.Entry<String, List<? extends Resource>> e : sections.entrySet()) {
+            sb.append(", ").append(e.getValue().size()).append(' ').append(e.getKey());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import utils.JsonParserUtil.Resource;
+
+/**
+ * Hash indexes over the decoded sections of one ProjectModel:
+ *  - ref -> resource, by $ref ("ent:SampleModel/SampleStrucuture") and by
+ *    $absoluteRef ("ent:ECT.QAChallengeHiringModule:SampleModel/SampleStrucuture")
+ *  - folder -> children, by $folderRef ("fld:pck/SampleModel"), per section
+ *
+ * Each section is added once, right after it is decoded, so lookups never scan
+ * the section lists.
+ */
+public class ResourceIndex {
+
+    // Ref prefix ("ent" in "ent:...") -> section that holds that kind of resource
+    private static final Map<String, String> SECTIONS_BY_PREFIX = new HashMap<>();
+
+    static {
+        SECTIONS_BY_PREFIX.put("ent", "entities");
+        SECTIONS_BY_PREFIX.put("enm", "enumerations");
+        SECTIONS_BY_PREFIX.put("flw", "flows");
+        SECTIONS_BY_PREFIX.put("ffd", "fileFolders");
+        SECTIONS_BY_PREFIX.put("fld", "folders");
+        SECTIONS_BY_PREFIX.put("fil", "files");
+    }
+
+    private final Map<String, Resource> byRef = new HashMap<>();
+    // section -> $folderRef -> children in document order
+    private final Map<String, Map<String, List<Resource>>> children = new LinkedHashMap<>();
+
+    /**
+     * Section holding resources with the given ref, or null if the prefix is not
+     * known (e.g. "rst:", "sql:"); such refs may be in any section.
+     */
+    public static String sectionFor(String ref) {
+        int colon = ref.indexOf(':');
+        return colon > 0 ? SECTIONS_BY_PREFIX.get(ref.substring(0, colon)) : null;
+    }
+
+    synchronized void add(String section, List<? extends Resource> resources) {
+        Map<String, List<Resource>> sectionChildren = children.computeIfAbsent(section, s -> new HashMap<>());
+        for (Resource resource : resources) {
+            if (resource.ref != null) byRef.put(resource.ref, resource);
+            if (resource.absoluteRef != null) byRef.put(resource.absoluteRef, resource);
+            if (resource.folderRef != null) {
+                sectionChildren.computeIfAbsent(resource.folderRef, f -> new ArrayList<>()).add(resource);
+            }
+        }
+    }
+
+    // Resource with the given $ref or $absoluteRef among the indexed sections, or null
+    public synchronized Resource get(String ref) {
+        return byRef.get(ref);
+    }
+
+    // Children of the folder within one section (empty if none or the section is not indexed)
+    public synchronized List<Resource> children(String section, String folderRef) {
+        Map<String, List<Resource>> sectionChildren = children.get(section);
+        List<Resource> list = sectionChildren != null ? sectionChildren.get(folderRef) : null;
+        return list != null ? Collections.unmodifiableList(list) : Collections.emptyList();
+    }
+
+    // Children of the folder across all indexed sections, grouped by section
+    public synchronized List<Resource> children(String folderRef) {
+        List<Resource> all = new ArrayList<>();
+        for (Map<String, List<Resource>> sectionChildren : children.values()) {
+            List<Resource> list = sectionChildren.get(folderRef);
+            if (list != null) all.addAll(list);
+        }
+        return all;
+    }
+
+    public synchronized int size() {
+        return byRef.size();
+    }
+}
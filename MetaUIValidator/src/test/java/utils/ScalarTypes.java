@@ -0,0 +1,61 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interned codes for the scalarType values of fields and flow inputs.
+ *
+ * Exports only use a small vocabulary (STRING, INTEGER, DATE, ...), so each
+ * field stores a one-byte code instead of its own String. Code 0 stands for
+ * null (a "type" object without "scalarType"); unknown values get the next free
+ * code the first time they are seen.
+ *
+ * Lookups of known types read an immutable table without locking, so parallel
+ * parsers do not contend on it; only registering a new type is synchronized.
+ */
+public final class ScalarTypes {
+
+    public static final String UNKNOWN = "UNKNOWN";
+
+    private static volatile Map<String, Integer> codes = new HashMap<>();
+    private static volatile String[] names = new String[1];
+
+    static {
+        for (String type : new String[] {UNKNOWN, "STRING", "INTEGER", "LONG", "BOOLEAN", "DATE", "DATETIME",
+                "TIME", "DECIMAL", "DOUBLE", "FLOAT", "BINARY", "UUID"}) {
+            code(type);
+        }
+    }
+
+    private ScalarTypes() {
+    }
+
+    // Code for the type, registering it if it is new
+    public static int code(String scalarType) {
+        if (scalarType == null) return 0;
+        Integer code = codes.get(scalarType);
+        return code != null ? code : register(scalarType);
+    }
+
+    // The shared String for a code (null for 0)
+    public static String name(int code) {
+        return names[code];
+    }
+
+    private static synchronized int register(String scalarType) {
+        Integer code = codes.get(scalarType);
+        if (code != null) return code;
+        int next = names.length;
+        if (next > 255) throw new IllegalStateException("More than 255 distinct scalar types, cannot add " + scalarType);
+        // copy-on-write: publish the new name before the code that points to it
+        String[] newNames = Arrays.copyOf(names, next + 1);
+        newNames[next] = scalarType;
+        names = newNames;
+        Map<String, Integer> newCodes = new HashMap<>(codes);
+        newCodes.put(scalarType, next);
+        codes = newCodes;
+        return next;
+    }
+}
@@ -0,0 +1,34 @@
+package utils;
+
+import java.util.function.Function;
+
+import utils.JsonParserUtil.Resource;
+
+/**
+ * Turns one element of a result -> resources section array into a model object.
+ *
+ * Decoders are registered in SectionRegistry and run lazily: a section is only
+ * decoded the first time a validator asks the ProjectModel for it.
+ */
+public interface SectionDecoder<T extends Resource> {
+
+    // Key of the section in result -> resources, e.g. "entities"
+    String section();
+
+    // Decodes the element the reader is positioned at
+    T decode(MappedJsonReader reader);
+
+    static <T extends Resource> SectionDecoder<T> of(String section, Function<MappedJsonReader, T> decoder) {
+        return new SectionDecoder<T>() {
+            @Override
+            public String section() {
+                return section;
+            }
+
+            @Override
+            public T decode(MappedJsonReader reader) {
+                return decoder.apply(reader);
+            }
+        };
+    }
+}
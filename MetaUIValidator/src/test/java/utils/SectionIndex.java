@@ -0,0 +1,106 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import utils.JsonParserUtil.Resource;
+
+/**
+ * Byte ranges of the result -> resources section arrays inside the mapped export.
+ *
+ * Built by one scan that skips over each section without decoding it. A section
+ * is decoded later, on request, by running its SectionDecoder over its range only.
+ */
+public class SectionIndex {
+
+    private final ByteBuffer buffer;
+    // section name -> {start, end} in document order
+    private final Map<String, int[]> ranges = new LinkedHashMap<>();
+    // Shared by all sections decoded from this export
+    private final NamePool names = new NamePool();
+
+    SectionIndex(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    // Maps the export and indexes its sections
+    public static SectionIndex scan(Path file) throws IOException {
+        MappedJsonReader reader = MappedJsonReader.open(file);
+        SectionIndex index = new SectionIndex(reader.buffer());
+        MappedModelParser.parseHeader(reader, index);
+        return index;
+    }
+
+    // Records the section the reader is positioned at and moves past it
+    void add(String section, MappedJsonReader r) {
+        r.peek();
+        int start = r.position();
+        r.skipValue();
+        ranges.put(section, new int[] {start, r.position()});
+    }
+
+    public Set<String> sections() {
+        return Collections.unmodifiableSet(ranges.keySet());
+    }
+
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    // {start, end} of the section's array, or null if the export has no such section
+    int[] range(String section) {
+        return ranges.get(section);
+    }
+
+    // Reader over [start, end) that shares this export's name pool
+    MappedJsonReader reader(int start, int end) {
+        return new MappedJsonReader(buffer, start, end, names);
+    }
+
+    /**
+     * Structural pre-scan of one section: the start and end of every element of
+     * its array as {start0, end0, start1, end1, ...}. Elements are only skipped
+     * over, nothing is decoded. Empty for a missing section or a non-array value.
+     */
+    int[] elements(String section) {
+        int[] range = ranges.get(section);
+        if (range == null) return new int[0];
+        MappedJsonReader r = reader(range[0], range[1]);
+        if (r.peek() != '[') return new int[0];
+        int[] bounds = new int[64];
+        int n = 0;
+        r.beginArray();
+        while (r.hasNext()) {
+            if (n + 2 > bounds.length) bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            r.peek();
+            bounds[n++] = r.position();
+            r.skipValue();
+            bounds[n++] = r.position();
+        }
+        return Arrays.copyOf(bounds, n);
+    }
+
+    /**
+     * Decodes every element of the section with the decoder. A missing section or
+     * a non-array value gives an empty list.
+     */
+    public <T extends Resource> List<T> decode(SectionDecoder<T> decoder) {
+        List<T> items = new ArrayList<>();
+        int[] range = ranges.get(decoder.section());
+        if (range == null) return items;
+        MappedJsonReader r = reader(range[0], range[1]);
+        if (r.peek() != '[') return items;
+        r.beginArray();
+        while (r.hasNext()) items.add(decoder.decode(r));
+        r.endArray();
+        return items;
+    }
+}
@@ -0,0 +1,62 @@
+package utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import utils.JsonParserUtil.Entity;
+import utils.JsonParserUtil.Enumeration;
+import utils.JsonParserUtil.FileFolder;
+import utils.JsonParserUtil.Flow;
+import utils.JsonParserUtil.Resource;
+
+/**
+ * Decoders for the result -> resources sections, looked up by section name.
+ *
+ * Entities, enumerations, flows and fileFolders have their own model classes;
+ * every other section (folders, files, rests, sqls, dialogs, jobs, ...) is
+ * decoded into GenericResource unless a dedicated decoder is registered.
+ */
+public class SectionRegistry {
+
+    public static final SectionDecoder<Entity> ENTITIES =
+            SectionDecoder.of("entities", MappedModelParser::readEntity);
+    public static final SectionDecoder<Enumeration> ENUMERATIONS =
+            SectionDecoder.of("enumerations", MappedModelParser::readEnumeration);
+    public static final SectionDecoder<Flow> FLOWS =
+            SectionDecoder.of("flows", MappedModelParser::readFlow);
+    public static final SectionDecoder<FileFolder> FILE_FOLDERS =
+            SectionDecoder.of("fileFolders", MappedModelParser::readFileFolder);
+
+    // Sections found in the exports; all of them start out generic
+    public static final SectionDecoder<GenericResource> FOLDERS = generic("folders");
+    public static final SectionDecoder<GenericResource> FILES = generic("files");
+
+    private static final Map<String, SectionDecoder<?>> DECODERS = new ConcurrentHashMap<>();
+
+    static {
+        register(ENTITIES);
+        register(ENUMERATIONS);
+        register(FLOWS);
+        register(FILE_FOLDERS);
+        register(FOLDERS);
+        register(FILES);
+    }
+
+    /**
+     * Registers (or replaces) the decoder for its section. Decoders must be
+     * registered before the first model asks for that section.
+     */
+    public static <T extends Resource> SectionDecoder<T> register(SectionDecoder<T> decoder) {
+        DECODERS.put(decoder.section(), decoder);
+        return decoder;
+    }
+
+    // Registered decoder for the section, or a GenericResource decoder
+    public static SectionDecoder<? extends Resource> decoderFor(String section) {
+        return DECODERS.computeIfAbsent(section, SectionRegistry::generic);
+    }
+
+    public static SectionDecoder<GenericResource> generic(String section) {
+        return SectionDecoder.of(section, GenericResource::read);
+    }
+}
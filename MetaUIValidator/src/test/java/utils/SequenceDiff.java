@@ -0,0 +1,211 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aligns two sequences along a longest common subsequence, using Myers' O(ND)
+ * difference algorithm in its linear-space form (divide and conquer on the
+ * middle snake, as in diff-match-patch's bisect).
+ *
+ * Elements are compared by equals(): each distinct element is mapped to an int
+ * once, so the inner loops compare ints. A common prefix and suffix are matched
+ * before any search, which makes the usual case (almost everything matches)
+ * close to linear: the cost grows with n times the number of differences D,
+ * and the working memory is O(n + m).
+ *
+ * Sequences without repeated elements (field names, literals) take a faster
+ * route, see alignUnique.
+ *
+ * The result says, for every element, which element of the other sequence it
+ * is aligned with (or -1 if it was deleted / inserted). Telling moves apart from
+ * real insertions and deletions is left to the caller, who knows what identifies
+ * an element (see validation.RowComparator).
+ */
+public class SequenceDiff {
+
+    // Alignment of a (expected) with b (actual)
+    public static class Alignment {
+        // index in b of each element of a, -1 if it is not in the common subsequence
+        public final int[] aToB;
+        // index in a of each element of b, -1 if it is not in the common subsequence
+        public final int[] bToA;
+        public int common;
+
+        Alignment(int n, int m) {
+            aToB = new int[n];
+            bToA = new int[m];
+            Arrays.fill(aToB, -1);
+            Arrays.fill(bToA, -1);
+        }
+    }
+
+    public static <T> Alignment align(List<T> a, List<T> b) {
+        Map<T, Integer> ids = new HashMap<>(Math.max(16, (a.size() + b.size()) * 2));
+        int[] x = new int[a.size()];
+        int[] y = new int[b.size()];
+        for (int i = 0; i < x.length; i++) x[i] = ids.computeIfAbsent(a.get(i), k -> ids.size());
+        for (int j = 0; j < y.length; j++) y[j] = ids.computeIfAbsent(b.get(j), k -> ids.size());
+        return isUnique(x, ids.size()) && isUnique(y, ids.size()) ? alignUnique(x, y, ids.size()) : align(x, y);
+    }
+
+    public static Alignment align(int[] a, int[] b) {
+        return new SequenceDiff(a, b).run();
+    }
+
+    /**
+     * Same alignment for sequences in which no id (0 <= id < ids) repeats on
+     * either side, like field names: the common subsequence is then the longest
+     * increasing run of b-positions taken in a's order, found in O(n log n) even
+     * when the sequences have little in common, where Myers is O(n^2).
+     */
+    public static Alignment alignUnique(int[] a, int[] b, int ids) {
+        Alignment result = new Alignment(a.length, b.length);
+        int[] positionInB = new int[ids];
+        Arrays.fill(positionInB, -1);
+        for (int j = 0; j < b.length; j++) positionInB[b[j]] = j;
+        // tails[k]: index in a of the smallest b-position ending an increasing run of length k + 1
+        int[] tails = new int[a.length];
+        int[] previous = new int[a.length];
+        int runs = 0;
+        for (int i = 0; i < a.length; i++) {
+            int j = positionInB[a[i]];
+            if (j < 0) continue;
+            int lo = 0, hi = runs;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (positionInB[a[tails[mid]]] < j) lo = mid + 1;
+                else hi = mid;
+            }
+            previous[i] = lo > 0 ? tails[lo - 1] : -1;
+            tails[lo] = i;
+            if (lo == runs) runs++;
+        }
+        for (int i = runs > 0 ? tails[runs - 1] : -1; i >= 0; i = previous[i]) {
+            int j = positionInB[a[i]];
+            result.aToB[i] = j;
+            result.bToA[j] = i;
+            result.common++;
+        }
+        return result;
+    }
+
+    private static boolean isUnique(int[] s, int ids) {
+        boolean[] seen = new boolean[ids];
+        for (int id : s) {
+            if (seen[id]) return false;
+            seen[id] = true;
+        }
+        return true;
+    }
+
+    private final int[] a;
+    private final int[] b;
+    private final Alignment result;
+    // furthest reaching x per diagonal, forward and backward; reused by every bisect
+    private final int[] v1;
+    private final int[] v2;
+
+    private SequenceDiff(int[] a, int[] b) {
+        this.a = a;
+        this.b = b;
+        this.result = new Alignment(a.length, b.length);
+        int size = 2 * ((a.length + b.length + 1) / 2) + 2;
+        this.v1 = new int[size];
+        this.v2 = new int[size];
+    }
+
+    private Alignment run() {
+        diff(0, a.length, 0, b.length);
+        return result;
+    }
+
+    private void diff(int aLo, int aHi, int bLo, int bHi) {
+        while (aLo < aHi && bLo < bHi && a[aLo] == b[bLo]) match(aLo++, bLo++);
+        while (aLo < aHi && bLo < bHi && a[aHi - 1] == b[bHi - 1]) match(--aHi, --bHi);
+        if (aLo == aHi || bLo == bHi) return; // only deletions or only insertions left
+        bisect(aLo, aHi, bLo, bHi);
+    }
+
+    // Finds the middle of the shortest edit path and aligns both halves
+    private void bisect(int aLo, int aHi, int bLo, int bHi) {
+        int n = aHi - aLo;
+        int m = bHi - bLo;
+        int maxD = (n + m + 1) / 2;
+        int offset = maxD;
+        int length = 2 * maxD + 2;
+        Arrays.fill(v1, 0, length, -1);
+        Arrays.fill(v2, 0, length, -1);
+        v1[offset + 1] = 0;
+        v2[offset + 1] = 0;
+        int delta = n - m;
+        // with an odd delta the paths meet while extending forward, otherwise backward
+        boolean front = (delta & 1) != 0;
+        // diagonals that ran off the edges of the grid are skipped
+        int k1start = 0, k1end = 0, k2start = 0, k2end = 0;
+        for (int d = 0; d < maxD; d++) {
+            for (int k1 = -d + k1start; k1 <= d - k1end; k1 += 2) {
+                int k1Offset = offset + k1;
+                int x1 = k1 == -d || (k1 != d && v1[k1Offset - 1] < v1[k1Offset + 1])
+                        ? v1[k1Offset + 1] : v1[k1Offset - 1] + 1;
+                int y1 = x1 - k1;
+                while (x1 < n && y1 < m && a[aLo + x1] == b[bLo + y1]) {
+                    x1++;
+                    y1++;
+                }
+                v1[k1Offset] = x1;
+                if (x1 > n) {
+                    k1end += 2;
+                } else if (y1 > m) {
+                    k1start += 2;
+                } else if (front) {
+                    int k2Offset = offset + delta - k1;
+                    if (k2Offset >= 0 && k2Offset < length && v2[k2Offset] != -1 && x1 >= n - v2[k2Offset]) {
+                        split(aLo, aHi, bLo, bHi, x1, y1);
+                        return;
+                    }
+                }
+            }
+            for (int k2 = -d + k2start; k2 <= d - k2end; k2 += 2) {
+                int k2Offset = offset + k2;
+                int x2 = k2 == -d || (k2 != d && v2[k2Offset - 1] < v2[k2Offset + 1])
+                        ? v2[k2Offset + 1] : v2[k2Offset - 1] + 1;
+                int y2 = x2 - k2;
+                while (x2 < n && y2 < m && a[aHi - x2 - 1] == b[bHi - y2 - 1]) {
+                    x2++;
+                    y2++;
+                }
+                v2[k2Offset] = x2;
+                if (x2 > n) {
+                    k2end += 2;
+                } else if (y2 > m) {
+                    k2start += 2;
+                } else if (!front) {
+                    int k1Offset = offset + delta - k2;
+                    if (k1Offset >= 0 && k1Offset < length && v1[k1Offset] != -1) {
+                        int x1 = v1[k1Offset];
+                        int y1 = offset + x1 - k1Offset;
+                        if (x1 >= n - x2) {
+                            split(aLo, aHi, bLo, bHi, x1, y1);
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+        // nothing in common: everything is deleted and inserted
+    }
+
+    private void split(int aLo, int aHi, int bLo, int bHi, int x, int y) {
+        diff(aLo, aLo + x, bLo, bLo + y);
+        diff(aLo + x, aHi, bLo + y, bHi);
+    }
+
+    private void match(int i, int j) {
+        result.aToB[i] = j;
+        result.bToA[j] = i;
+        result.common++;
+    }
+}
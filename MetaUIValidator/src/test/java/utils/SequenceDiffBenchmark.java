@@ -0,0 +1,181 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * SequenceDiff on 10k-element sequences, against the classic O(n*m) dynamic
+ * programming LCS (length only, two rows).
+ *
+ * First checks on random sequences over small alphabets that the alignment is a
+ * valid common subsequence of maximal length, then times the cases that matter
+ * for field lists: identical, one insertion in the middle, one moved element,
+ * 1% random edits, and the worst cases (reversed, nothing in common), with
+ * Myers (align) and with the route for sequences without repeats (alignUnique).
+ * Run with
+ *   java -cp target/test-classes utils.SequenceDiffBenchmark 10000
+ */
+public class SequenceDiffBenchmark {
+
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        Random random = new Random(42);
+        check(random);
+
+        int[] base = new int[n];
+        for (int i = 0; i < n; i++) base[i] = i;
+
+        System.out.printf("%-22s %10s %12s %12s %12s%n", "case (" + n + " elements)", "common", "myers ms", "unique ms", "dp ms");
+        time("identical", base, base.clone());
+        time("insert in the middle", base, insert(base, n / 2, -1));
+        time("one element moved", base, move(base, n / 10, n - n / 10));
+        time("1% random edits", base, edit(base, n / 100, random));
+        time("reversed", base, reverse(base));
+        time("nothing in common", base, shift(base, n));
+    }
+
+    // Myers LCS length equals the DP LCS length, and the alignment is increasing and consistent
+    private static void check(Random random) {
+        for (int round = 0; round < 2000; round++) {
+            int alphabet = 1 + random.nextInt(6);
+            int[] a = randomSequence(random, random.nextInt(40), alphabet);
+            int[] b = randomSequence(random, random.nextInt(40), alphabet);
+            SequenceDiff.Alignment alignment = SequenceDiff.align(a, b);
+            if (!valid(alignment, a, b)) throw new IllegalStateException("Invalid alignment in round " + round);
+            if (alignment.common != dpLength(a, b)) {
+                throw new IllegalStateException("Alignment is not a longest common subsequence in round " + round);
+            }
+            // no repeats: random subsets of 0..49 in random order
+            int[] x = uniqueSequence(random, 50), y = uniqueSequence(random, 50);
+            SequenceDiff.Alignment unique = SequenceDiff.alignUnique(x, y, 50);
+            if (!valid(unique, x, y) || unique.common != dpLength(x, y)) {
+                throw new IllegalStateException("Unique alignment is not a longest common subsequence in round " + round);
+            }
+        }
+        System.out.println("Checked 2000 random pairs (and 2000 without repeats) against the DP LCS");
+    }
+
+    private static void time(String name, int[] a, int[] b) {
+        long myers = Long.MAX_VALUE, unique = Long.MAX_VALUE;
+        int common = 0;
+        // values lie in [-n - 1, 2n) (edits use negative ids, "nothing in common" n..2n-1)
+        int n = a.length;
+        int ids = 3 * n + 1;
+        int[] x = offset(a, n + 1), y = offset(b, n + 1);
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            common = SequenceDiff.align(a, b).common;
+            myers = Math.min(myers, System.nanoTime() - start);
+            start = System.nanoTime();
+            if (SequenceDiff.alignUnique(x, y, ids).common != common) {
+                throw new IllegalStateException(name + ": unique alignment differs");
+            }
+            unique = Math.min(unique, System.nanoTime() - start);
+        }
+        long start = System.nanoTime();
+        if (dpLength(a, b) != common) throw new IllegalStateException(name + ": LCS length differs from DP");
+        long dp = System.nanoTime() - start;
+        System.out.printf("%-22s %10d %12.2f %12.2f %12.1f%n", name, common, myers / 1e6, unique / 1e6, dp / 1e6);
+    }
+
+    private static boolean valid(SequenceDiff.Alignment alignment, int[] a, int[] b) {
+        int last = -1;
+        for (int i = 0; i < a.length; i++) {
+            int j = alignment.aToB[i];
+            if (j < 0) continue;
+            if (j <= last || a[i] != b[j] || alignment.bToA[j] != i) return false;
+            last = j;
+        }
+        return true;
+    }
+
+    // shifts the benchmark ids to be non-negative for alignUnique
+    private static int[] offset(int[] s, int by) {
+        int[] r = new int[s.length];
+        for (int i = 0; i < s.length; i++) r[i] = s[i] + by;
+        return r;
+    }
+
+    private static int[] uniqueSequence(Random random, int ids) {
+        int[] all = new int[ids];
+        for (int i = 0; i < ids; i++) all[i] = i;
+        for (int i = ids - 1; i > 0; i--) {
+            int k = random.nextInt(i + 1);
+            int t = all[i];
+            all[i] = all[k];
+            all[k] = t;
+        }
+        return Arrays.copyOf(all, random.nextInt(ids + 1));
+    }
+
+    private static int dpLength(int[] a, int[] b) {
+        int[] previous = new int[b.length + 1];
+        int[] current = new int[b.length + 1];
+        for (int i = 1; i <= a.length; i++) {
+            for (int j = 1; j <= b.length; j++) {
+                current[j] = a[i - 1] == b[j - 1] ? previous[j - 1] + 1 : Math.max(previous[j], current[j - 1]);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length];
+    }
+
+    private static int[] randomSequence(Random random, int length, int alphabet) {
+        int[] s = new int[length];
+        for (int i = 0; i < length; i++) s[i] = random.nextInt(alphabet);
+        return s;
+    }
+
+    private static int[] insert(int[] s, int at, int value) {
+        int[] r = new int[s.length + 1];
+        System.arraycopy(s, 0, r, 0, at);
+        r[at] = value;
+        System.arraycopy(s, at, r, at + 1, s.length - at);
+        return r;
+    }
+
+    private static int[] move(int[] s, int from, int to) {
+        int[] r = new int[s.length];
+        int k = 0;
+        for (int i = 0; i < s.length; i++) {
+            if (i == from) continue;
+            r[k++] = s[i];
+            if (i == to) r[k++] = s[from];
+        }
+        return r;
+    }
+
+    // count random deletions, insertions or replacements
+    private static int[] edit(int[] s, int count, Random random) {
+        int[] r = s.clone();
+        for (int e = 0; e < count; e++) {
+            int at = random.nextInt(r.length);
+            switch (random.nextInt(3)) {
+                case 0: r[at] = -1 - e; break;
+                case 1: r = insert(r, at, -1 - e); break;
+                default:
+                    int[] shorter = new int[r.length - 1];
+                    System.arraycopy(r, 0, shorter, 0, at);
+                    System.arraycopy(r, at + 1, shorter, at, r.length - at - 1);
+                    r = shorter;
+            }
+        }
+        return r;
+    }
+
+    private static int[] reverse(int[] s) {
+        int[] r = new int[s.length];
+        for (int i = 0; i < s.length; i++) r[i] = s[s.length - 1 - i];
+        return r;
+    }
+
+    private static int[] shift(int[] s, int by) {
+        int[] r = new int[s.length];
+        for (int i = 0; i < s.length; i++) r[i] = s[i] + by;
+        return r;
+    }
+}
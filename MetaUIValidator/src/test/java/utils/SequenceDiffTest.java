@@ -0,0 +1,129 @@
+package utils;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+/**
+ * SequenceDiff.align against a plain O(nm) LCS: the alignment must be a valid
+ * common subsequence (equal elements, increasing on both sides, both maps
+ * consistent) and as long as the LCS. Random sequences over small alphabets
+ * exercise the Myers bisect with repeated elements, permutations the
+ * alignUnique route.
+ */
+public class SequenceDiffTest {
+
+    private static final long SEED = 20240601L;
+
+    @Test
+    public void emptyAndIdenticalSequences() {
+        check(Collections.<Integer>emptyList(), Collections.<Integer>emptyList());
+        check(Arrays.asList(1, 2, 3), Collections.<Integer>emptyList());
+        check(Collections.<Integer>emptyList(), Arrays.asList(1, 2, 3));
+        SequenceDiff.Alignment same = check(Arrays.asList(1, 2, 2, 3), Arrays.asList(1, 2, 2, 3));
+        assertEquals(same.common, 4);
+    }
+
+    @Test
+    public void nothingInCommon() {
+        SequenceDiff.Alignment alignment = check(Arrays.asList(1, 2, 3), Arrays.asList(4, 5, 6, 7));
+        assertEquals(alignment.common, 0);
+    }
+
+    @Test
+    public void singleInsertDeleteAndMove() {
+        assertEquals(check(Arrays.asList("a", "b", "c"), Arrays.asList("a", "x", "b", "c")).common, 3);
+        assertEquals(check(Arrays.asList("a", "b", "c"), Arrays.asList("a", "c")).common, 2);
+        assertEquals(check(Arrays.asList("a", "b", "c", "d"), Arrays.asList("b", "c", "d", "a")).common, 3);
+    }
+
+    @Test
+    public void randomSequencesWithRepeats() {
+        Random random = new Random(SEED);
+        for (int run = 0; run < 2000; run++) {
+            int alphabet = 1 + random.nextInt(6);
+            check(randomList(random, random.nextInt(40), alphabet), randomList(random, random.nextInt(40), alphabet));
+        }
+    }
+
+    @Test
+    public void randomEditsOfOneSequence() {
+        Random random = new Random(SEED + 1);
+        for (int run = 0; run < 500; run++) {
+            List<Integer> a = randomList(random, 50 + random.nextInt(150), 20);
+            List<Integer> b = new ArrayList<>(a);
+            for (int edit = random.nextInt(10); edit > 0 && !b.isEmpty(); edit--) {
+                int at = random.nextInt(b.size());
+                switch (random.nextInt(3)) {
+                    case 0: b.remove(at); break;
+                    case 1: b.add(at, random.nextInt(25)); break;
+                    default: b.add(random.nextInt(b.size()), b.remove(at)); break;
+                }
+            }
+            check(a, b);
+        }
+    }
+
+    @Test
+    public void randomPermutationsOfUniqueElements() {
+        Random random = new Random(SEED + 2);
+        for (int run = 0; run < 500; run++) {
+            int n = random.nextInt(60);
+            List<Integer> a = new ArrayList<>();
+            for (int i = 0; i < n; i++) a.add(i);
+            List<Integer> b = new ArrayList<>(a);
+            Collections.shuffle(b, random);
+            // drop and add a few so not every element is shared
+            if (!b.isEmpty() && random.nextBoolean()) b.remove(random.nextInt(b.size()));
+            if (random.nextBoolean()) b.add(random.nextInt(b.size() + 1), 1000 + run);
+            check(a, b);
+        }
+    }
+
+    private static <T> SequenceDiff.Alignment check(List<T> a, List<T> b) {
+        SequenceDiff.Alignment alignment = SequenceDiff.align(a, b);
+        assertEquals(alignment.aToB.length, a.size());
+        assertEquals(alignment.bToA.length, b.size());
+        int matched = 0, lastJ = -1;
+        for (int i = 0; i < a.size(); i++) {
+            int j = alignment.aToB[i];
+            if (j < 0) continue;
+            assertTrue(j > lastJ, "alignment not increasing at " + i + ": " + a + " / " + b);
+            assertEquals(b.get(j), a.get(i), "aligned elements differ");
+            assertEquals(alignment.bToA[j], i, "bToA does not mirror aToB");
+            lastJ = j;
+            matched++;
+        }
+        int mirrored = 0;
+        for (int i : alignment.bToA) if (i >= 0) mirrored++;
+        assertEquals(mirrored, matched);
+        assertEquals(alignment.common, matched);
+        assertEquals(matched, lcsLength(a, b), "not a longest common subsequence: " + a + " / " + b);
+        return alignment;
+    }
+
+    // Textbook dynamic programming LCS length
+    private static <T> int lcsLength(List<T> a, List<T> b) {
+        int[][] lcs = new int[a.size() + 1][b.size() + 1];
+        for (int i = 1; i <= a.size(); i++) {
+            for (int j = 1; j <= b.size(); j++) {
+                lcs[i][j] = a.get(i - 1).equals(b.get(j - 1)) ? lcs[i - 1][j - 1] + 1
+                        : Math.max(lcs[i - 1][j], lcs[i][j - 1]);
+            }
+        }
+        return lcs[a.size()][b.size()];
+    }
+
+    private static List<Integer> randomList(Random random, int length, int alphabet) {
+        List<Integer> list = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) list.add(random.nextInt(alphabet));
+        return list;
+    }
+}
@@ -0,0 +1,69 @@
+package utils;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import utils.JsonParserUtil.ParseMode;
+
+/**
+ * Startup-time comparison: cold parse vs. snapshot load.
+ *
+ * Each measurement starts a fresh JVM running JsonParserUtil.main, so class
+ * loading and JIT warm-up are included exactly as on a CI agent. Run with e.g.
+ *   java -cp target/test-classes:... utils.SnapshotBenchmark 1000 4000
+ * where the arguments are entity counts (50 fields each).
+ */
+public class SnapshotBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int[] entityCounts = args.length > 0 ? new int[args.length] : new int[] {1000, 4000};
+        for (int i = 0; i < args.length; i++) entityCounts[i] = Integer.parseInt(args[i]);
+
+        Path dir = Paths.get(System.getProperty("user.dir"), "target", "bench");
+        System.out.printf("%-10s %10s %12s %16s %16s %16s%n",
+                "entities", "json MB", "snapshot MB", "cold parse ms", "parse+write ms", "snapshot ms");
+
+        for (int entityCount : entityCounts) {
+            Path file = SyntheticExport.write(dir.resolve("synthetic-" + entityCount + ".json"), entityCount, 50);
+            Path snapshot = ModelSnapshot.snapshotPath(file);
+            Files.deleteIfExists(snapshot);
+
+            long cold = runJvm(file, false);
+            long write = runJvm(file, true);   // no snapshot yet: parses and writes it
+            long load = runJvm(file, true);    // hash matches: loads the snapshot
+
+            // the snapshot must give back exactly what the parser produced
+            ProjectModel parsed = ParserBenchmark.quietly(file, ParseMode.MAPPED);
+            ProjectModel restored = ModelSnapshot.load(snapshot, parsed.getHash());
+            if (restored == null || !ParserBenchmark.sameContent(parsed, restored)) {
+                throw new IllegalStateException("Snapshot content differs from the parsed model for " + file);
+            }
+
+            System.out.printf("%-10d %10.1f %12.1f %16d %16d %16d%n", entityCount,
+                    Files.size(file) / 1048576.0, Files.size(snapshot) / 1048576.0, cold, write, load);
+        }
+    }
+
+    // Wall time in ms of a fresh JVM loading the export
+    private static long runJvm(Path file, boolean snapshot) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("-Dparser.snapshot=" + snapshot);
+        command.add("utils.JsonParserUtil");
+        command.add(file.toString());
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(new File(file + ".log"))
+                .start();
+        if (process.waitFor() != 0) throw new IllegalStateException("Loader JVM failed, see " + file + ".log");
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
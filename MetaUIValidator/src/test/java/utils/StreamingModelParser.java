@@ -0,0 +1,339 @@
+package utils;
+
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.simple.parser.ContentHandler;
+import org.json.simple.parser.JSONParser;
+
+import utils.JsonParserUtil.Entity;
+import utils.JsonParserUtil.EnumLiteral;
+import utils.JsonParserUtil.Enumeration;
+import utils.JsonParserUtil.Field;
+import utils.JsonParserUtil.FileFolder;
+import utils.JsonParserUtil.Flow;
+import utils.JsonParserUtil.FlowInput;
+import utils.JsonParserUtil.Resource;
+
+/**
+ * Token-streaming parser for the JSON export.
+ *
+ * Uses the json-simple ContentHandler (SAX style) API instead of building a
+ * JSONObject tree. Only the entries listed in the path table below are turned
+ * into model objects; everything else (nested "$folder" copies, "icon", empty
+ * resource arrays, ...) is skipped as it streams past, so memory use depends on
+ * the size of the resulting model and not on the size of the file.
+ */
+public class StreamingModelParser implements ContentHandler {
+
+    // Kinds of JSON locations the parser reacts to
+    private static final int SKIP = 0;
+    private static final int CONTAINER = 1;
+    private static final int REV = 2, HASH = 3, PROJECT_NAME = 4;
+    private static final int ENTITY = 10, ENTITY_NAME = 11, FIELD = 12, FIELD_NAME = 13,
+            FIELD_TYPE = 14, FIELD_SCALAR_TYPE = 15, FIELD_PK = 16;
+    private static final int ENUMERATION = 20, ENUM_NAME = 21, LITERAL = 22, LITERAL_CONSTANT = 23;
+    private static final int FLOW = 30, FLOW_NAME = 31, INPUT = 32, INPUT_NAME = 33,
+            INPUT_TYPE = 34, INPUT_SCALAR_TYPE = 35;
+    private static final int FILE_FOLDER = 40, FOLDER_NAME = 41, FOLDER_CITIZEN = 42, FOLDER_LOCATION = 43;
+    private static final int ABSOLUTE_REF = 50, CHANGED_VERSION = 51, REF = 52, FOLDER_REF = 53, DISPLAY_NAME = 54;
+
+    /*
+     * One node per JSON location we care about, e.g. result -> resources -> entities -> fields.
+     * Keys not found among the children of the current node are skipped.
+     */
+    private static final class PathNode {
+        final int kind;
+        final Map<String, PathNode> children = new HashMap<>();
+
+        PathNode(int kind) {
+            this.kind = kind;
+        }
+
+        PathNode add(String key, int kind) {
+            PathNode child = new PathNode(kind);
+            children.put(key, child);
+            return child;
+        }
+
+        // Entries shared by all resources
+        PathNode addResourceKeys() {
+            add("$absoluteRef", ABSOLUTE_REF);
+            add("changedVersion", CHANGED_VERSION);
+            add("$ref", REF);
+            add("$folderRef", FOLDER_REF);
+            add("$displayName", DISPLAY_NAME);
+            return this;
+        }
+    }
+
+    private static final PathNode ROOT = new PathNode(CONTAINER);
+
+    static {
+        PathNode result = ROOT.add("result", CONTAINER);
+        result.add("rev", REV);
+        result.add("hash", HASH);
+        result.add("project", CONTAINER).add("name", PROJECT_NAME);
+
+        PathNode resources = result.add("resources", CONTAINER);
+
+        PathNode entities = resources.add("entities", ENTITY).addResourceKeys();
+        entities.add("name", ENTITY_NAME);
+        PathNode fields = entities.add("fields", FIELD);
+        fields.add("name", FIELD_NAME);
+        fields.add("type", FIELD_TYPE).add("scalarType", FIELD_SCALAR_TYPE);
+        fields.add("pk", FIELD_PK);
+
+        PathNode enumerations = resources.add("enumerations", ENUMERATION).addResourceKeys();
+        enumerations.add("name", ENUM_NAME);
+        enumerations.add("literals", LITERAL).add("constant", LITERAL_CONSTANT);
+
+        PathNode flows = resources.add("flows", FLOW).addResourceKeys();
+        flows.add("name", FLOW_NAME);
+        PathNode inputs = flows.add("input", INPUT);
+        inputs.add("name", INPUT_NAME);
+        inputs.add("type", INPUT_TYPE).add("scalarType", INPUT_SCALAR_TYPE);
+
+        PathNode fileFolders = resources.add("fileFolders", FILE_FOLDER).addResourceKeys();
+        fileFolders.add("name", FOLDER_NAME);
+        fileFolders.add("isCitizenToolEnabled", FOLDER_CITIZEN);
+        fileFolders.add("location", FOLDER_LOCATION);
+    }
+
+    // Current position in the path table and nesting of the entry being skipped
+    private final Deque<PathNode> path = new ArrayDeque<>();
+    private int skipDepth;
+
+    // Header values
+    private String projectName;
+    private long rev;
+    private String hash;
+
+    // Sections and the objects currently being filled
+    private final List<Entity> entities = new ArrayList<>();
+    private final List<Enumeration> enumerations = new ArrayList<>();
+    private final List<Flow> flows = new ArrayList<>();
+    private final List<FileFolder> fileFolders = new ArrayList<>();
+    private Resource resource;
+    private Entity entity;
+    private Field field;
+    private Enumeration enumeration;
+    private EnumLiteral literal;
+    private Flow flow;
+    private FlowInput input;
+    private FileFolder fileFolder;
+    private final NamePool names = new NamePool();
+
+    /**
+     * Streams the export from the reader and returns the model.
+     */
+    public static ProjectModel parse(Reader reader) throws Exception {
+        StreamingModelParser handler = new StreamingModelParser();
+        new JSONParser().parse(reader, handler);
+        return handler.toModel();
+    }
+
+    ProjectModel toModel() {
+        return new ProjectModel(projectName, rev, hash, entities, enumerations, flows, fileFolders);
+    }
+
+    @Override
+    public void startJSON() {
+        path.clear();
+        path.push(ROOT);
+        skipDepth = 0;
+    }
+
+    @Override
+    public void endJSON() {
+    }
+
+    @Override
+    public boolean startObjectEntry(String key) {
+        if (skipDepth > 0) {
+            skipDepth++;
+            return true;
+        }
+        PathNode next = path.peek().children.get(key);
+        if (next == null) {
+            skipDepth = 1;
+            return true;
+        }
+        path.push(next);
+        return true;
+    }
+
+    @Override
+    public boolean endObjectEntry() {
+        if (skipDepth > 0) {
+            skipDepth--;
+        } else {
+            path.pop();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean startObject() {
+        if (skipDepth > 0) return true;
+        switch (path.peek().kind) {
+            case ENTITY:
+                resource = entity = new Entity();
+                break;
+            case FIELD:
+                field = new Field();
+                field.scalarType = ScalarTypes.UNKNOWN;
+                break;
+            case FIELD_TYPE:
+                field.scalarType = null;
+                break;
+            case ENUMERATION:
+                resource = enumeration = new Enumeration();
+                break;
+            case LITERAL:
+                literal = new EnumLiteral();
+                break;
+            case FLOW:
+                resource = flow = new Flow();
+                break;
+            case INPUT:
+                input = new FlowInput();
+                input.scalarType = ScalarTypes.UNKNOWN;
+                break;
+            case INPUT_TYPE:
+                input.scalarType = null;
+                break;
+            case FILE_FOLDER:
+                resource = fileFolder = new FileFolder();
+                break;
+            default:
+                break;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean endObject() {
+        if (skipDepth > 0) return true;
+        switch (path.peek().kind) {
+            case ENTITY:
+                entity.fields.trimToSize();
+                entities.add(entity);
+                entity = null;
+                break;
+            case FIELD:
+                entity.fields.add(field);
+                field = null;
+                break;
+            case ENUMERATION:
+                enumerations.add(enumeration);
+                enumeration = null;
+                break;
+            case LITERAL:
+                enumeration.literals.add(literal);
+                literal = null;
+                break;
+            case FLOW:
+                flow.inputs.trimToSize();
+                flows.add(flow);
+                flow = null;
+                break;
+            case INPUT:
+                flow.inputs.add(input);
+                input = null;
+                break;
+            case FILE_FOLDER:
+                fileFolders.add(fileFolder);
+                fileFolder = null;
+                break;
+            default:
+                break;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean startArray() {
+        return true;
+    }
+
+    @Override
+    public boolean endArray() {
+        return true;
+    }
+
+    @Override
+    public boolean primitive(Object value) {
+        if (skipDepth > 0) return true;
+        switch (path.peek().kind) {
+            case REV:
+                rev = value instanceof Number ? ((Number) value).longValue() : 0;
+                break;
+            case HASH:
+                hash = (String) value;
+                break;
+            case PROJECT_NAME:
+                projectName = (String) value;
+                break;
+            case ENTITY_NAME:
+                entity.entityName = (String) value;
+                break;
+            case FIELD_NAME:
+                field.name = names.dedupe((String) value);
+                break;
+            case FIELD_SCALAR_TYPE:
+                field.scalarType = (String) value;
+                break;
+            case FIELD_PK:
+                field.pk = Boolean.TRUE.equals(value);
+                break;
+            case ENUM_NAME:
+                enumeration.name = (String) value;
+                break;
+            case LITERAL_CONSTANT:
+                literal.constant = names.dedupe((String) value);
+                break;
+            case FLOW_NAME:
+                flow.name = (String) value;
+                break;
+            case INPUT_NAME:
+                input.name = names.dedupe((String) value);
+                break;
+            case INPUT_SCALAR_TYPE:
+                input.scalarType = (String) value;
+                break;
+            case FOLDER_NAME:
+                fileFolder.name = (String) value;
+                break;
+            case FOLDER_CITIZEN:
+                fileFolder.citizenToolEnabled = (Boolean) value;
+                break;
+            case FOLDER_LOCATION:
+                fileFolder.location = (String) value;
+                break;
+            case ABSOLUTE_REF:
+                resource.absoluteRef = (String) value;
+                break;
+            case CHANGED_VERSION:
+                resource.changedVersion = value instanceof Number ? ((Number) value).longValue() : 0;
+                break;
+            case REF:
+                resource.ref = (String) value;
+                break;
+            case FOLDER_REF:
+                resource.folderRef = (String) value;
+                break;
+            case DISPLAY_NAME:
+                resource.displayName = (String) value;
+                break;
+            default:
+                break;
+        }
+        return true;
+    }
+}
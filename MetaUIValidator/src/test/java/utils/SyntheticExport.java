@@ -0,0 +1,164 @@
+package utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes large exports with the same layout as QAChallengeJSON.json
+ * (packages, entities with fields, enumerations, flows, virtual folders, the
+ * nested "$folder" copies, "icon" objects and the empty resource arrays).
+ *
+ * Used by the parser benchmarks to measure throughput and memory on files
+ * much bigger than the sample export.
+ */
+public class SyntheticExport {
+
+    private static final String[] SCALAR_TYPES = {
+            "STRING", "INTEGER", "LONG", "BOOLEAN", "DATE", "DATETIME", "DECIMAL", "DOUBLE"
+    };
+
+    private static final String[] EMPTY_SECTIONS = {
+            "communicationApis", "mappings", "persistenceApis", "persistenceInterceptors", "mailTemplates",
+            "statistics", "jobs", "soaps", "rests", "sqls", "configValues", "securityProperties",
+            "userProfiles", "dialogs", "javascriptModules", "pushApis", "authProviders", "authListeners",
+            "interfaces", "interfaceImpls", "telcoFiles", "avps", "avpMessageTemplates",
+            "avpGroupTemplates", "localizations", "dataSources"
+    };
+
+    private static final String MODULE = "ECT.SyntheticModule";
+
+    /**
+     * Writes an export with the given number of entities and fields per entity.
+     * Enumerations, flows and folders are scaled from the entity count.
+     */
+    public static Path write(Path target, int entityCount, int fieldsPerEntity) throws IOException {
+        int packageCount = Math.max(1, entityCount / 50);
+        int enumCount = Math.max(1, entityCount / 2);
+        int flowCount = Math.max(1, entityCount / 4);
+        int folderCount = Math.max(1, entityCount / 10);
+
+        if (target.getParent() != null) Files.createDirectories(target.getParent());
+        try (Writer w = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            w.write("{\n \"result\": {\n");
+            w.write("  \"fmt\": \"1.3\",\n");
+            w.write("  \"project\": {\"id\": 1, \"name\": \"Synthetic_" + entityCount + "\", \"type\": \"MOD\","
+                    + " \"description\": \"Generated export \\\"synthetic\\\" für Benchmarks\", \"deleted\": false},\n");
+            w.write("  \"owner\": \"ECT\",\n  \"name\": \"SyntheticModule\",\n");
+            w.write("  \"rev\": " + entityCount + ",\n");
+            w.write("  \"hash\": \"synthetic-" + entityCount + "-" + fieldsPerEntity + "\",\n");
+            w.write("  \"settings\": {\"resourceStatus\": \"COMMITTED\", \"changedVersion\": 1},\n");
+            w.write("  \"resources\": {\n");
+
+            // folders
+            w.write("   \"folders\": [\n");
+            for (int p = 0; p < packageCount; p++) {
+                if (p > 0) w.write(",\n");
+                w.write("    " + packageJson(p));
+            }
+            w.write("\n   ],\n");
+
+            // entities
+            w.write("   \"entities\": [\n");
+            for (int e = 0; e < entityCount; e++) {
+                if (e > 0) w.write(",\n");
+                int p = e % packageCount;
+                String entityName = "Entity" + e;
+                String ownerRef = "ent:Pkg" + p + "/" + entityName;
+                w.write("    {\"changedVersion\": " + (1 + e % 3) + ", \"resourceStatus\": \"COMMITTED\","
+                        + " \"created\": \"2025-08-04T08:58:50.092Z\", \"createdBy\": \"synthetic\","
+                        + " \"lastChanged\": \"2025-08-04T08:59:08.774Z\", \"name\": \"" + entityName + "\","
+                        + " \"folder\": {\"ref\": \"fld:pck/Pkg" + p + "\"},\n     \"fields\": [\n");
+                for (int f = 0; f < fieldsPerEntity; f++) {
+                    if (f > 0) w.write(",\n");
+                    String fieldName = f == 0 ? "id" : "field" + f;
+                    w.write("      {\"name\": \"" + fieldName + "\", \"type\": {\"dataClass\": \"SCALAR\","
+                            + " \"scalarType\": \"" + SCALAR_TYPES[(e + f) % SCALAR_TYPES.length] + "\"},"
+                            + (f == 0 ? " \"pk\": true," : "")
+                            + " \"$type\": \"FieldDef\", \"$includedLevel\": 0, \"$ownerRef\": \"" + ownerRef + "\","
+                            + " \"$displayName\": \"Pkg" + p + "/" + entityName + "/" + fieldName + "\","
+                            + " \"$isVisible\": true, \"$autoPk\": false}");
+                }
+                w.write("\n     ], \"$type\": \"EntityDef\", \"$includedLevel\": 0, \"$folderRef\": \"fld:pck/Pkg" + p + "\","
+                        + " \"$folder\": " + packageJson(p) + ","
+                        + " \"$displayName\": \"Pkg" + p + "/" + entityName + "\", \"$ref\": \"" + ownerRef + "\","
+                        + " \"$absoluteRef\": \"ent:" + MODULE + ":Pkg" + p + "/" + entityName + "\","
+                        + " \"$isVisible\": true, \"$isValid\": true}");
+            }
+            w.write("\n   ],\n");
+
+            // enumerations
+            w.write("   \"enumerations\": [\n");
+            for (int n = 0; n < enumCount; n++) {
+                if (n > 0) w.write(",\n");
+                int p = n % packageCount;
+                String enumName = "Enum" + n;
+                w.write("    {\"changedVersion\": 1, \"resourceStatus\": \"COMMITTED\", \"name\": \"" + enumName + "\","
+                        + " \"folder\": {\"ref\": \"fld:pck/Pkg" + p + "\"}, \"literals\": [");
+                for (int l = 0; l < 8; l++) {
+                    if (l > 0) w.write(", ");
+                    w.write("{\"constant\": \"" + (l == 0 ? "München" : "Literal" + l) + "\"}");
+                }
+                w.write("], \"$type\": \"Enumeration\", \"$includedLevel\": 0, \"$folderRef\": \"fld:pck/Pkg" + p + "\","
+                        + " \"$folder\": " + packageJson(p) + ","
+                        + " \"$displayName\": \"Pkg" + p + "/" + enumName + "\", \"$ref\": \"enm:Pkg" + p + "/" + enumName + "\","
+                        + " \"$absoluteRef\": \"enm:" + MODULE + ":Pkg" + p + "/" + enumName + "\","
+                        + " \"$isVisible\": true, \"$isValid\": true}");
+            }
+            w.write("\n   ],\n");
+
+            // flows
+            w.write("   \"flows\": [\n");
+            for (int n = 0; n < flowCount; n++) {
+                if (n > 0) w.write(",\n");
+                String flowName = "Flow" + n;
+                w.write("    {\"changedVersion\": 1, \"resourceStatus\": \"COMMITTED\", \"name\": \"" + flowName + "\","
+                        + " \"isPrivate\": true, \"createdIn\": \"PRO\", \"type\": \"MAIN\", \"variant\": \"BACKEND\", \"input\": [");
+                for (int i = 0; i < 4; i++) {
+                    if (i > 0) w.write(", ");
+                    w.write("{\"name\": \"Input" + i + "\", \"type\": {\"dataClass\": \"SCALAR\", \"scalarType\": \""
+                            + SCALAR_TYPES[(n + i) % SCALAR_TYPES.length] + "\"}}");
+                }
+                w.write("], \"icon\": {\"id\": 1, \"name\": \"End\", \"source\": \"BASE\", \"base\": \"END\", \"isValid\": true,"
+                        + " \"output\": {\"type\": \"END\"}}, \"isValid\": true, \"$type\": \"Flow\", \"$includedLevel\": 0,"
+                        + " \"$displayName\": \"" + flowName + "\", \"$ref\": \"flw:" + flowName + "\","
+                        + " \"$absoluteRef\": \"flw:" + MODULE + ":" + flowName + "\", \"$isVisible\": true, \"$isValid\": true}");
+            }
+            w.write("\n   ],\n");
+
+            // fileFolders
+            w.write("   \"fileFolders\": [\n");
+            for (int n = 0; n < folderCount; n++) {
+                if (n > 0) w.write(",\n");
+                String folderName = "VF" + n;
+                w.write("    {\"changedVersion\": 1, \"resourceStatus\": \"COMMITTED\", \"name\": \"" + folderName + "\","
+                        + " \"isCitizenToolEnabled\": " + (n % 2 == 0) + ", \"location\": \"" + (n % 2 == 0 ? "PRIVATE" : "PUBLIC") + "\","
+                        + " \"$type\": \"FileFolder\", \"$includedLevel\": 0, \"$displayName\": \"" + folderName + "\","
+                        + " \"$ref\": \"ffd:" + folderName + "\", \"$absoluteRef\": \"ffd:" + MODULE + ":" + folderName + "\","
+                        + " \"$isVisible\": true, \"$isValid\": true}");
+            }
+            w.write("\n   ],\n");
+
+            // files
+            w.write("   \"files\": [{\"changedVersion\": 1, \"name\": \"Logo\", \"type\": \"IMAGE\", \"mimeType\": \"image/jpeg\","
+                    + " \"$type\": \"FileResource\", \"$displayName\": \"Logo\", \"$ref\": \"fil:Logo\","
+                    + " \"$absoluteRef\": \"fil:" + MODULE + ":Logo\", \"$isVisible\": true, \"$isValid\": true}],\n");
+
+            for (int i = 0; i < EMPTY_SECTIONS.length; i++) {
+                w.write("   \"" + EMPTY_SECTIONS[i] + "\": []" + (i < EMPTY_SECTIONS.length - 1 ? ",\n" : "\n"));
+            }
+            w.write("  },\n  \"$working\": false,\n  \"$label\": \"0.0.1-SNAPSHOT\"\n }\n}\n");
+        }
+        return target;
+    }
+
+    private static String packageJson(int p) {
+        return "{\"changedVersion\": 1, \"resourceStatus\": \"COMMITTED\", \"created\": \"2025-08-04T08:58:39.515Z\","
+                + " \"createdBy\": \"synthetic\", \"lastChanged\": \"2025-08-04T08:58:41.502Z\", \"name\": \"Pkg" + p + "\","
+                + " \"type\": \"pck\", \"$type\": \"Package\", \"$includedLevel\": 0, \"$displayName\": \"Pkg" + p + "\","
+                + " \"$ref\": \"fld:pck/Pkg" + p + "\", \"$absoluteRef\": \"fld:" + MODULE + ":pck/Pkg" + p + "\","
+                + " \"$isVisible\": true, \"$isValid\": true}";
+    }
+}
@@ -0,0 +1,86 @@
+package validation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
+
+/**
+ * How Chrome is started for a validation run (-Dbrowser.profile):
+ *  DEFAULT - Chrome's defaults in a maximized window
+ *  LEAN    - headless with a fixed window size, the eager page load strategy (the
+ *            DOM is ready, images and frames may still load), extensions and
+ *            background throttling off, and images, fonts and analytics/tracking
+ *            hosts blocked through the DevTools Network domain; more URL patterns
+ *            can be blocked with -Dbrowser.blockedUrls=*cdn.example.com*,*.mp4
+ *
+ * Verification only reads the explorer and details panel DOM, so nothing the
+ * LEAN profile leaves out is looked at.
+ */
+public enum BrowserProfile {
+    DEFAULT, LEAN;
+
+    // Images and fonts by extension, and common third-party analytics/tracking hosts
+    static final List<String> BLOCKED_URLS = Collections.unmodifiableList(Arrays.asList(
+            "*.png", "*.jpg", "*.jpeg", "*.gif", "*.webp", "*.svg", "*.ico", "*.bmp",
+            "*.woff", "*.woff2", "*.ttf", "*.otf", "*.eot",
+            "*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*", "*hotjar.com*",
+            "*segment.io*", "*segment.com*", "*mixpanel.com*", "*newrelic.com*", "*nr-data.net*",
+            "*fullstory.com*", "*intercom.io*", "*sentry.io*"));
+
+    // Profile selected with -Dbrowser.profile, DEFAULT if not set
+    public static BrowserProfile fromSystemProperty() {
+        return valueOf(System.getProperty("browser.profile", "default").trim().toUpperCase());
+    }
+
+    // Options to start (or attach to) Chrome with
+    public ChromeOptions options() {
+        ChromeOptions options = new ChromeOptions();
+        if (this == LEAN) {
+            options.setPageLoadStrategy(PageLoadStrategy.EAGER);
+            options.addArguments("--headless=new", "--window-size=1920,1080",
+                    "--disable-extensions", "--disable-component-extensions-with-background-pages",
+                    "--disable-background-networking", "--disable-background-timer-throttling",
+                    "--disable-backgrounding-occluded-windows", "--disable-renderer-backgrounding",
+                    "--disable-default-apps", "--disable-sync", "--no-first-run", "--mute-audio");
+        }
+        return options;
+    }
+
+    // A headless browser already has its window size
+    public boolean maximize() {
+        return this == DEFAULT;
+    }
+
+    /**
+     * Sets up a started browser: for LEAN, blocks the URLs through DevTools. The
+     * rules belong to the DevTools session, so they are set again on every start
+     * or attach. A remote browser needs to be augmented (Augmenter) to take them.
+     */
+    public void apply(WebDriver driver) {
+        if (this != LEAN) return;
+        if (!(driver instanceof HasCdp)) {
+            System.out.println("Browser has no DevTools access, loading everything");
+            return;
+        }
+        List<String> urls = new ArrayList<>(BLOCKED_URLS);
+        for (String url : System.getProperty("browser.blockedUrls", "").split(",")) {
+            if (!url.trim().isEmpty()) urls.add(url.trim());
+        }
+        Map<String, Object> blocked = new HashMap<>();
+        blocked.put("urls", urls);
+        try {
+            ((HasCdp) driver).executeCdpCommand("Network.enable", new HashMap<String, Object>());
+            ((HasCdp) driver).executeCdpCommand("Network.setBlockedURLs", blocked);
+        } catch (RuntimeException e) {
+            System.out.println("Could not block URLs, loading everything | " + e.getMessage());
+        }
+    }
+}
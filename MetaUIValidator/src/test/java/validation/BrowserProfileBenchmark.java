@@ -0,0 +1,103 @@
+package validation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import pages.CommandCounter;
+import utils.JsonParserUtil;
+import utils.ProjectModel;
+
+/**
+ * Per-resource latency and browser memory of the DEFAULT and LEAN browser
+ * profiles, side by side, against the real application (-Dapp.url):
+ *   java -cp target/test-classes:... -Dapp.url=https://... validation.BrowserProfileBenchmark [jsonPath] [default,lean]
+ *
+ * Each profile gets its own browser, logged in like VerifyTest's (saved session
+ * or login UI), and verifies every resource of the four types once with one
+ * session. Memory is the proportional set size (PSS, shared pages split between
+ * the processes sharing them) of the Chrome processes started by this JVM, read
+ * from /proc after the run, so it is only reported on Linux.
+ */
+public class BrowserProfileBenchmark {
+
+    public static void main(String[] args) {
+        String jsonPath = args.length > 0 ? args[0] : Paths.get(System.getProperty("user.dir"),
+                "src", "test", "resources", "Jsonfiles", "QAChallengeJSON.json").toString();
+        String[] profiles = (args.length > 1 ? args[1] : "default,lean").split(",");
+        PrintStream out = System.out;
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            ProjectModel model = JsonParserUtil.getProjectModel(jsonPath);
+            int resources = model.getEntities().size() + model.getEnumerations().size()
+                    + model.getFlows().size() + model.getFileFolders().size();
+            out.printf("%d resources, %s%n", resources, SessionManager.APP_URL);
+            for (String name : profiles) {
+                BrowserProfile profile = BrowserProfile.valueOf(name.trim().toUpperCase());
+                SessionManager browsers = new SessionManager(profile);
+                try {
+                    long start = System.nanoTime();
+                    FindingsCollector findings = new FindingsCollector();
+                    SessionPool sessions = new SessionPool(1, c -> CommandCounter.attach(browsers.acquire(), c), browsers::release);
+                    long ready = System.nanoTime();
+                    VerificationEngine engine = new VerificationEngine(model, sessions, RunLedger.forExport(Paths.get(jsonPath)), findings);
+                    for (ResourceSpec<?> spec : Arrays.asList(ResourceSpecs.ENTITIES, ResourceSpecs.ENUMERATIONS,
+                            ResourceSpecs.FLOWS, ResourceSpecs.FILE_FOLDERS)) {
+                        try {
+                            engine.verify(spec);
+                        } catch (AssertionError e) {
+                            // differences do not matter for the timing
+                        }
+                    }
+                    double perResource = (System.nanoTime() - ready) / 1e6 / resources;
+                    long commands = sessions.commandCount();
+                    long[] memory = chromeMemory();
+                    engine.close();
+                    sessions.close();
+                    out.printf("%-7s: start %d ms | %.0f ms per resource | first verified after %d ms | %d commands | %s%n",
+                            profile.name().toLowerCase(), (ready - start) / 1_000_000, perResource,
+                            findings.timeToFirstVerified(), commands,
+                            memory[0] == 0 ? "memory n/a"
+                                    : String.format("%d Chrome processes, %d MB PSS (%d MB per process)",
+                                            memory[0], memory[1] >> 10, (memory[1] / memory[0]) >> 10));
+                } finally {
+                    browsers.shutdown();
+                }
+            }
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    // Number of Chrome processes started by this JVM and their PSS in KB (0, 0 without /proc)
+    private static long[] chromeMemory() {
+        List<ProcessHandle> chrome = new ArrayList<>();
+        ProcessHandle.current().descendants().forEach(p -> {
+            String command = p.info().command().orElse("");
+            if (command.contains("chrom") && !command.endsWith("chromedriver")) chrome.add(p);
+        });
+        long kb = 0;
+        int counted = 0;
+        for (ProcessHandle process : chrome) {
+            Path rollup = Paths.get("/proc", String.valueOf(process.pid()), "smaps_rollup");
+            try {
+                for (String line : Files.readAllLines(rollup)) {
+                    if (line.startsWith("Pss:")) {
+                        kb += Long.parseLong(line.replaceAll("\\D", ""));
+                        counted++;
+                        break;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // process gone, or no /proc
+            }
+        }
+        return new long[]{counted, kb};
+    }
+}
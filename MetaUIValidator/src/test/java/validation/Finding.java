@@ -0,0 +1,69 @@
+package validation;
+
+/**
+ * One result of verifying a resource: a missing or unexpected item, a
+ * mismatched value, or a verified resource. The parts are kept as they are and
+ * the message is only built when it is printed or reported (message()):
+ *
+ *   Missing (navigation): Entity:Customer | no such node
+ *   Mismatch (field type): Entity:Customer | id expected [Integer] found [Text]
+ *   Unexpected (presence sweep): Data > Models > SampleModel | Extra
+ */
+public class Finding {
+
+    public enum Kind {
+        MISSING("Missing"), UNEXPECTED("Unexpected"), MISMATCH("Mismatch"), VERIFIED("Verified");
+
+        final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+    }
+
+    public final Kind kind;
+    // Resource type, e.g. "entities"
+    public final String type;
+    // $ref of the resource, null for items the export does not have
+    public final String ref;
+    // How the resource is named in messages, e.g. "Flow: ServerFlow"
+    public final String resource;
+    // What was checked, e.g. "navigation", "name", "field type"
+    public final String check;
+    // Row, literal or label the finding is about; null for the resource itself
+    public final String item;
+    public final Object expected;
+    public final Object actual;
+    // Error message of a failed step, null otherwise
+    public final String detail;
+
+    public Finding(Kind kind, String type, String ref, String resource, String check, String item,
+                   Object expected, Object actual, String detail) {
+        this.kind = kind;
+        this.type = type;
+        this.ref = ref;
+        this.resource = resource;
+        this.check = check;
+        this.item = item;
+        this.expected = expected;
+        this.actual = actual;
+        this.detail = detail;
+    }
+
+    public String message() {
+        StringBuilder m = new StringBuilder(kind.label);
+        if (check != null) m.append(" (").append(check).append(')');
+        m.append(": ").append(resource);
+        boolean values = expected != null || actual != null;
+        if (item != null || values) m.append(" |");
+        if (item != null) m.append(' ').append(item);
+        if (values) m.append(" expected [").append(expected).append("] found [").append(actual).append(']');
+        if (detail != null) m.append(" | ").append(detail);
+        return m.toString();
+    }
+
+    @Override
+    public String toString() {
+        return message();
+    }
+}
@@ -0,0 +1,128 @@
+package validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import validation.Finding.Kind;
+
+/**
+ * Collects the findings of a run. Every finding is counted per resource type
+ * and kind, but only the first N of each type and kind are kept for the
+ * reports (-Dverify.findingsLimit, default 100), so a badly broken environment
+ * does not hold every message until the end of the suite.
+ * Safe to share between the sessions of a SessionPool.
+ */
+public class FindingsCollector {
+
+    private final int limit;
+    // per type: counts by kind ordinal, and the findings kept
+    private final Map<String, long[]> counts = new LinkedHashMap<>();
+    private final Map<String, Map<Kind, List<Finding>>> kept = new LinkedHashMap<>();
+    // System.nanoTime() when the collector was created / the first resource was verified
+    private final long started = System.nanoTime();
+    private long firstVerified = -1;
+
+    public FindingsCollector() {
+        this(Integer.getInteger("verify.findingsLimit", 100));
+    }
+
+    public FindingsCollector(int limit) {
+        this.limit = limit;
+    }
+
+    public synchronized void add(Finding finding) {
+        if (finding.kind == Kind.VERIFIED && firstVerified < 0) firstVerified = System.nanoTime();
+        counts.computeIfAbsent(finding.type, t -> new long[Kind.values().length])[finding.kind.ordinal()]++;
+        List<Finding> list = kept.computeIfAbsent(finding.type, t -> new EnumMap<>(Kind.class))
+                .computeIfAbsent(finding.kind, k -> new ArrayList<>());
+        if (list.size() < limit) list.add(finding);
+    }
+
+    public synchronized long count(String type, Kind kind) {
+        long[] c = counts.get(type);
+        return c == null ? 0 : c[kind.ordinal()];
+    }
+
+    // Adds the counts and kept findings of one type and kind from another run (e.g. a shard)
+    public synchronized void merge(String type, Kind kind, long count, List<Finding> examples) {
+        counts.computeIfAbsent(type, t -> new long[Kind.values().length])[kind.ordinal()] += count;
+        List<Finding> list = kept.computeIfAbsent(type, t -> new EnumMap<>(Kind.class))
+                .computeIfAbsent(kind, k -> new ArrayList<>());
+        for (Finding finding : examples) {
+            if (list.size() < limit) list.add(finding);
+        }
+    }
+
+    // Resource types with findings, in the order they were first added
+    public synchronized List<String> types() {
+        return new ArrayList<>(counts.keySet());
+    }
+
+    // Count over all types
+    public synchronized long count(Kind kind) {
+        long total = 0;
+        for (long[] c : counts.values()) total += c[kind.ordinal()];
+        return total;
+    }
+
+    // The findings kept for a type and kind, in the order they were added
+    public synchronized List<Finding> examples(String type, Kind kind) {
+        Map<Kind, List<Finding>> byKind = kept.get(type);
+        List<Finding> list = byKind == null ? null : byKind.get(kind);
+        return list == null ? Collections.<Finding>emptyList() : new ArrayList<>(list);
+    }
+
+    // Milliseconds from the collector's creation to the first verified resource, -1 if none was verified
+    public synchronized long timeToFirstVerified() {
+        return firstVerified < 0 ? -1 : (firstVerified - started) / 1_000_000;
+    }
+
+    // Anything missing, unexpected or mismatched for a type
+    public boolean hasIssues(String type) {
+        return count(type, Kind.MISSING) + count(type, Kind.UNEXPECTED) + count(type, Kind.MISMATCH) > 0;
+    }
+
+    /**
+     * Summary of a type's issues for Assert.fail: the kept findings under
+     * Missing: and Mismatches: (unexpected items included), and how many more
+     * there were.
+     */
+    public synchronized String issues(String type, String title) {
+        StringBuilder summary = new StringBuilder(title).append(" verification found issues:\n");
+        if (count(type, Kind.MISSING) > 0) {
+            summary.append("Missing:\n");
+            append(summary, type, Kind.MISSING);
+        }
+        if (count(type, Kind.UNEXPECTED) + count(type, Kind.MISMATCH) > 0) {
+            summary.append("Mismatches:\n");
+            append(summary, type, Kind.UNEXPECTED);
+            append(summary, type, Kind.MISMATCH);
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Lines for the final summary: each type's kept findings of a kind, and how
+     * many more there were.
+     */
+    public synchronized List<String> lines(Kind kind) {
+        List<String> lines = new ArrayList<>();
+        for (String type : counts.keySet()) {
+            for (Finding finding : examples(type, kind)) lines.add(finding.message());
+            long more = count(type, kind) - examples(type, kind).size();
+            if (more > 0) lines.add("... " + more + " more " + type + " not shown");
+        }
+        return lines;
+    }
+
+    private void append(StringBuilder summary, String type, Kind kind) {
+        List<Finding> list = examples(type, kind);
+        for (Finding finding : list) summary.append(" - ").append(finding.message()).append("\n");
+        long more = count(type, kind) - list.size();
+        if (more > 0) summary.append(" - ... ").append(more).append(" more not shown\n");
+    }
+}
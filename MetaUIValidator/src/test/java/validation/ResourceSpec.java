@@ -0,0 +1,122 @@
+package validation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import pages.DetailsPanel;
+import pages.ExplorerPaths;
+import pages.FieldRow;
+import pages.ProjectDetailsPage;
+import utils.JsonParserUtil.Resource;
+import utils.ProjectModel;
+
+/**
+ * What VerificationEngine needs to know to verify one resource type: where the
+ * resources are in the export and in the explorer, how to read the details
+ * panel, and which attributes to compare and how. See ResourceSpecs.
+ *
+ * Comparisons:
+ *   - exact: one value, e.g. the name (Mismatch (name): expected [..] found [..])
+ *   - rows, ORDERED: rows joined by name and aligned (RowComparator): missing,
+ *     unexpected, reordered and changed rows
+ *   - rows, SET: the same without the order
+ * Exact comparisons run first; an empty row list marks the resource missing.
+ */
+public class ResourceSpec<R extends Resource> {
+
+    public enum Order { ORDERED, SET }
+
+    static final class Exact<R> {
+        final String attribute;
+        final Function<R, Object> expected;
+        final Function<DetailsPanel, Object> found;
+
+        Exact(String attribute, Function<R, Object> expected, Function<DetailsPanel, Object> found) {
+            this.attribute = attribute;
+            this.expected = expected;
+            this.found = found;
+        }
+    }
+
+    static final class Rows<R> {
+        final String row;       // "field" -> Missing (field), Mismatch (field type), ...
+        final String whenEmpty; // "fields" -> Missing (fields) when the panel shows no rows
+        final Function<R, List<FieldRow>> expected;
+        final Function<DetailsPanel, List<FieldRow>> found;
+        final Order order;
+
+        Rows(String row, String whenEmpty, Function<R, List<FieldRow>> expected,
+             Function<DetailsPanel, List<FieldRow>> found, Order order) {
+            this.row = row;
+            this.whenEmpty = whenEmpty;
+            this.expected = expected;
+            this.found = found;
+            this.order = order;
+        }
+    }
+
+    // Ledger / section name, e.g. "entities"
+    final String type;
+    // For messages: "Entities" summary, "Entity" verification found issues
+    final String plural;
+    final String singular;
+
+    Function<ProjectModel, List<R>> resources;
+    Function<R, String> label;
+    BiFunction<ProjectModel, R, List<String>> path = ExplorerPaths::pathOf;
+    Function<ProjectDetailsPage, DetailsPanel> read;
+    Function<R, String> fingerprint;
+    Function<ProjectDetailsPage, String> pageFingerprint;
+    final List<Exact<R>> exact = new ArrayList<>();
+    final List<Rows<R>> rows = new ArrayList<>();
+
+    public ResourceSpec(String type, String plural, String singular) {
+        this.type = type;
+        this.plural = plural;
+        this.singular = singular;
+    }
+
+    // The resources of this type in the export
+    public ResourceSpec<R> resources(Function<ProjectModel, List<R>> resources) {
+        this.resources = resources;
+        return this;
+    }
+
+    // How the resource is named in messages, e.g. "Flow: ServerFlow"
+    public ResourceSpec<R> label(Function<R, String> label) {
+        this.label = label;
+        return this;
+    }
+
+    // Explorer path of a resource (default: ExplorerPaths.pathOf)
+    public ResourceSpec<R> path(BiFunction<ProjectModel, R, List<String>> path) {
+        this.path = path;
+        return this;
+    }
+
+    // Reads the opened resource's details panel
+    public ResourceSpec<R> read(Function<ProjectDetailsPage, DetailsPanel> read) {
+        this.read = read;
+        return this;
+    }
+
+    // Fingerprint of the export's resource and of the page, to skip the full read when equal
+    public ResourceSpec<R> fingerprint(Function<R, String> expected, Function<ProjectDetailsPage, String> page) {
+        this.fingerprint = expected;
+        this.pageFingerprint = page;
+        return this;
+    }
+
+    public ResourceSpec<R> exact(String attribute, Function<R, Object> expected, Function<DetailsPanel, Object> found) {
+        exact.add(new Exact<>(attribute, expected, found));
+        return this;
+    }
+
+    public ResourceSpec<R> rows(String row, String whenEmpty, Function<R, List<FieldRow>> expected,
+                                Function<DetailsPanel, List<FieldRow>> found, Order order) {
+        rows.add(new Rows<>(row, whenEmpty, expected, found, order));
+        return this;
+    }
+}
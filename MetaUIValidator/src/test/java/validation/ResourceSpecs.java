@@ -0,0 +1,89 @@
+package validation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import pages.FieldRow;
+import pages.ProjectDetailsPage;
+import utils.Fingerprint;
+import utils.JsonParserUtil.Entity;
+import utils.JsonParserUtil.EnumLiteral;
+import utils.JsonParserUtil.Enumeration;
+import utils.JsonParserUtil.FileFolder;
+import utils.JsonParserUtil.Flow;
+import utils.ProjectModel;
+import validation.ResourceSpec.Order;
+
+/**
+ * The resource types VerifyTest checks, as specs for VerificationEngine.
+ */
+public class ResourceSpecs {
+
+    // Structures: name, and field rows (name, data type, PK) in order
+    public static final ResourceSpec<Entity> ENTITIES = new ResourceSpec<Entity>("entities", "Entities", "Entity")
+            .resources(ProjectModel::getEntities)
+            .label(e -> "Entity:" + e.entityName + " ")
+            .read(ProjectDetailsPage::readEntityDetails)
+            .fingerprint(Fingerprint::of, ProjectDetailsPage::fingerprintEntity)
+            .exact("name", e -> e.entityName, panel -> panel.name)
+            .rows("field", "fields", ResourceSpecs::fields, panel -> panel.fields, Order.ORDERED);
+
+    // Enumerations: name, and literals in order
+    public static final ResourceSpec<Enumeration> ENUMERATIONS =
+            new ResourceSpec<Enumeration>("enumerations", "Enumerations", "Enumeration")
+            .resources(ProjectModel::getEnumerations)
+            .label(e -> "Enumerations: " + e.name)
+            .read(ProjectDetailsPage::readEnumDetails)
+            .fingerprint(Fingerprint::of, ProjectDetailsPage::fingerprintEnum)
+            .exact("name", e -> e.name, panel -> panel.name)
+            .rows("literal", "literals", ResourceSpecs::literals, panel -> rows(panel.literals), Order.ORDERED);
+
+    // Server flows: name, and input rows (name, data type) in order
+    public static final ResourceSpec<Flow> FLOWS = new ResourceSpec<Flow>("flows", "Flows", "Flow")
+            .resources(ProjectModel::getFlows)
+            .label(f -> "Flow: " + f.name)
+            .read(ProjectDetailsPage::readFlowDetails)
+            .fingerprint(Fingerprint::of, ProjectDetailsPage::fingerprintFlow)
+            .exact("name", f -> f.name, panel -> panel.name)
+            .rows("flow input", "flow inputs", ResourceSpecs::inputs, panel -> panel.inputs, Order.ORDERED);
+
+    // Virtual folders: name, location and Citizen Tool flag
+    public static final ResourceSpec<FileFolder> FILE_FOLDERS =
+            new ResourceSpec<FileFolder>("fileFolders", "Virtual Folders", "FileFolder")
+            .resources(ProjectModel::getFileFolders)
+            .label(f -> "FileFolder: " + f.name)
+            .read(ProjectDetailsPage::readFolderDetails)
+            .fingerprint(Fingerprint::of, ProjectDetailsPage::fingerprintFolder)
+            .exact("folder name", f -> f.name, panel -> panel.name)
+            .exact("folder location", f -> f.location, panel -> panel.location)
+            .exact("folder citizenTool", f -> Boolean.TRUE.equals(f.citizenToolEnabled), panel -> panel.citizenToolEnabled);
+
+    private static List<FieldRow> fields(Entity entity) {
+        List<FieldRow> rows = new ArrayList<>(entity.fields.size());
+        for (int i = 0; i < entity.fields.size(); i++) {
+            rows.add(new FieldRow(entity.fields.name(i), entity.fields.scalarType(i), entity.fields.isPk(i)));
+        }
+        return rows;
+    }
+
+    private static List<FieldRow> literals(Enumeration enumeration) {
+        List<FieldRow> rows = new ArrayList<>(enumeration.literals.size());
+        for (EnumLiteral literal : enumeration.literals) rows.add(new FieldRow(literal.constant, null, null));
+        return rows;
+    }
+
+    private static List<FieldRow> inputs(Flow flow) {
+        List<FieldRow> rows = new ArrayList<>(flow.inputs.size());
+        for (int i = 0; i < flow.inputs.size(); i++) {
+            rows.add(new FieldRow(flow.inputs.name(i), flow.inputs.scalarType(i), null));
+        }
+        return rows;
+    }
+
+    // Name-only rows for a list of labels
+    private static List<FieldRow> rows(List<String> names) {
+        List<FieldRow> rows = new ArrayList<>(names.size());
+        for (String name : names) rows.add(new FieldRow(name, null, null));
+        return rows;
+    }
+}
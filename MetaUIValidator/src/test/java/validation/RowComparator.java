@@ -0,0 +1,117 @@
+package validation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import pages.FieldRow;
+import utils.SequenceDiff;
+
+/**
+ * Compares the rows the UI shows with the rows the export expects by name
+ * instead of by position, so one missing row does not shift every row after it.
+ *
+ * Rows are keyed by name (a repeated name by its occurrence) and the two key
+ * sequences are aligned with SequenceDiff. Rows on the common subsequence are in
+ * place; of the rest, a key on both sides is a move and the others are real
+ * deletions and insertions. So an inserted row is reported once, and a moved row
+ * once, not every row it shifted:
+ *   - missing:   expected, not shown
+ *   - extra:     shown, not expected
+ *   - reordered: shown, but out of order (the fewest rows that explain the order)
+ *   - changed:   matched by name, with a different type or PK
+ * A null type or pk in an expected row is not compared.
+ */
+public class RowComparator {
+
+    public static class Diff {
+        public final List<FieldRow> missing = new ArrayList<>();
+        public final List<FieldRow> extra = new ArrayList<>();
+        public final List<Move> reordered = new ArrayList<>();
+        public final List<Change> changed = new ArrayList<>();
+
+        public boolean isClean() {
+            return missing.isEmpty() && extra.isEmpty() && reordered.isEmpty() && changed.isEmpty();
+        }
+    }
+
+    // A row shown out of order: its index in the export and in the UI
+    public static class Move {
+        public final String name;
+        public final int expectedPos;
+        public final int foundPos;
+
+        Move(String name, int expectedPos, int foundPos) {
+            this.name = name;
+            this.expectedPos = expectedPos;
+            this.foundPos = foundPos;
+        }
+    }
+
+    // A matched row whose attribute ("type" or "PK") differs
+    public static class Change {
+        public final String name;
+        public final String attribute;
+        public final Object expected;
+        public final Object found;
+
+        Change(String name, String attribute, Object expected, Object found) {
+            this.name = name;
+            this.attribute = attribute;
+            this.expected = expected;
+            this.found = found;
+        }
+    }
+
+    public static Diff compare(List<FieldRow> expected, List<FieldRow> found) {
+        Diff diff = new Diff();
+        List<String> expectedKeys = keys(expected);
+        List<String> foundKeys = keys(found);
+        SequenceDiff.Alignment alignment = SequenceDiff.align(expectedKeys, foundKeys);
+
+        // UI rows outside the common subsequence, by key: moved if the export has them elsewhere
+        Map<String, Integer> unaligned = new HashMap<>();
+        for (int j = 0; j < found.size(); j++) {
+            if (alignment.bToA[j] < 0) unaligned.put(foundKeys.get(j), j);
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            int j = alignment.aToB[i];
+            if (j < 0) {
+                Integer moved = unaligned.remove(expectedKeys.get(i));
+                if (moved == null) {
+                    diff.missing.add(expected.get(i));
+                    continue;
+                }
+                j = moved;
+                diff.reordered.add(new Move(expected.get(i).name, i, j));
+            }
+            compareAttributes(expected.get(i), found.get(j), diff);
+        }
+        for (int j = 0; j < found.size(); j++) {
+            if (alignment.bToA[j] < 0 && unaligned.containsKey(foundKeys.get(j))) diff.extra.add(found.get(j));
+        }
+        return diff;
+    }
+
+    private static void compareAttributes(FieldRow want, FieldRow row, Diff diff) {
+        if (want.type != null && !want.type.equals(row.type)) {
+            diff.changed.add(new Change(row.name, "type", want.type, row.type));
+        }
+        if (want.pk != null && !Objects.equals(want.pk, row.pk)) {
+            diff.changed.add(new Change(row.name, "PK", want.pk, row.pk));
+        }
+    }
+
+    // Join key of each row: its name, plus the occurrence for a repeated name
+    private static List<String> keys(List<FieldRow> rows) {
+        Map<String, Integer> seen = new HashMap<>(rows.size() * 2);
+        List<String> keys = new ArrayList<>(rows.size());
+        for (FieldRow row : rows) {
+            int occurrence = seen.merge(row.name, 1, Integer::sum) - 1;
+            keys.add(occurrence == 0 ? row.name : row.name + "\u0000" + occurrence);
+        }
+        return keys;
+    }
+}
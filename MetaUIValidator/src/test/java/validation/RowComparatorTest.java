@@ -0,0 +1,136 @@
+package validation;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import pages.FieldRow;
+
+/**
+ * RowComparator on small tables: each kind of difference is reported once,
+ * for the row it concerns, and not for the rows it shifted.
+ */
+public class RowComparatorTest {
+
+    private static FieldRow row(String name, String type, Boolean pk) {
+        return new FieldRow(name, type, pk);
+    }
+
+    private static List<FieldRow> table() {
+        return Arrays.asList(row("id", "Integer", true), row("name", "Text", false),
+                row("email", "Text", false), row("created", "DateTime", false));
+    }
+
+    private static List<String> names(List<FieldRow> rows) {
+        List<String> names = new ArrayList<>();
+        for (FieldRow row : rows) names.add(row.name);
+        return names;
+    }
+
+    @Test
+    public void identicalTablesAreClean() {
+        assertTrue(RowComparator.compare(table(), table()).isClean());
+    }
+
+    @Test
+    public void insertedRowIsOneExtra() {
+        List<FieldRow> found = new ArrayList<>(table());
+        found.add(1, row("phone", "Text", false));
+        RowComparator.Diff diff = RowComparator.compare(table(), found);
+        assertEquals(names(diff.extra), Arrays.asList("phone"));
+        assertTrue(diff.missing.isEmpty());
+        assertTrue(diff.reordered.isEmpty());
+        assertTrue(diff.changed.isEmpty());
+    }
+
+    @Test
+    public void deletedRowIsOneMissing() {
+        List<FieldRow> found = new ArrayList<>(table());
+        found.remove(1);
+        RowComparator.Diff diff = RowComparator.compare(table(), found);
+        assertEquals(names(diff.missing), Arrays.asList("name"));
+        assertTrue(diff.extra.isEmpty());
+        assertTrue(diff.reordered.isEmpty());
+        assertTrue(diff.changed.isEmpty());
+    }
+
+    @Test
+    public void movedRowIsOneReorder() {
+        List<FieldRow> found = new ArrayList<>(table());
+        found.add(found.remove(0)); // id moved to the end
+        RowComparator.Diff diff = RowComparator.compare(table(), found);
+        assertEquals(diff.reordered.size(), 1);
+        RowComparator.Move move = diff.reordered.get(0);
+        assertEquals(move.name, "id");
+        assertEquals(move.expectedPos, 0);
+        assertEquals(move.foundPos, 3);
+        assertTrue(diff.missing.isEmpty());
+        assertTrue(diff.extra.isEmpty());
+        assertTrue(diff.changed.isEmpty());
+    }
+
+    @Test
+    public void typeAndPkChangesOnMatchedRows() {
+        List<FieldRow> found = new ArrayList<>(table());
+        found.set(0, row("id", "Long", false));
+        found.set(2, row("email", "Email", false));
+        RowComparator.Diff diff = RowComparator.compare(table(), found);
+        assertEquals(diff.changed.size(), 3);
+        assertEquals(diff.changed.get(0).name, "id");
+        assertEquals(diff.changed.get(0).attribute, "type");
+        assertEquals(diff.changed.get(0).expected, "Integer");
+        assertEquals(diff.changed.get(0).found, "Long");
+        assertEquals(diff.changed.get(1).attribute, "PK");
+        assertEquals(diff.changed.get(1).expected, true);
+        assertEquals(diff.changed.get(1).found, false);
+        assertEquals(diff.changed.get(2).name, "email");
+        assertTrue(diff.missing.isEmpty() && diff.extra.isEmpty() && diff.reordered.isEmpty());
+    }
+
+    @Test
+    public void nullExpectedAttributesAreNotCompared() {
+        List<FieldRow> expected = Arrays.asList(row("in", null, null), row("out", "Text", null));
+        List<FieldRow> found = Arrays.asList(row("in", "Integer", true), row("out", "Text", false));
+        assertTrue(RowComparator.compare(expected, found).isClean());
+    }
+
+    @Test
+    public void duplicateNamesAreJoinedByOccurrence() {
+        List<FieldRow> expected = Arrays.asList(row("value", "Text", false), row("id", "Integer", true),
+                row("value", "Integer", false));
+        // same rows: clean
+        assertTrue(RowComparator.compare(expected, expected).isClean());
+
+        // second "value" missing: reported once, and the first one still matches
+        RowComparator.Diff missing = RowComparator.compare(expected,
+                Arrays.asList(row("value", "Text", false), row("id", "Integer", true)));
+        assertEquals(missing.missing.size(), 1);
+        assertEquals(missing.missing.get(0).type, "Integer");
+        assertTrue(missing.changed.isEmpty() && missing.extra.isEmpty() && missing.reordered.isEmpty());
+
+        // an extra third "value" is one extra row
+        List<FieldRow> extra = new ArrayList<>(expected);
+        extra.add(row("value", "Text", false));
+        RowComparator.Diff diff = RowComparator.compare(expected, extra);
+        assertEquals(diff.extra.size(), 1);
+        assertEquals(diff.extra.get(0).name, "value");
+        assertTrue(diff.missing.isEmpty() && diff.changed.isEmpty() && diff.reordered.isEmpty());
+    }
+
+    @Test
+    public void insertDeleteAndMoveTogether() {
+        // expected id, name, email, created -> found name, id, email, phone
+        List<FieldRow> found = Arrays.asList(row("name", "Text", false), row("id", "Integer", true),
+                row("email", "Text", false), row("phone", "Text", false));
+        RowComparator.Diff diff = RowComparator.compare(table(), found);
+        assertEquals(names(diff.missing), Arrays.asList("created"));
+        assertEquals(names(diff.extra), Arrays.asList("phone"));
+        assertEquals(diff.reordered.size(), 1);
+        assertTrue(diff.changed.isEmpty());
+    }
+}
@@ -0,0 +1,126 @@
+package validation;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+import utils.JsonParserUtil.Resource;
+
+/**
+ * Persisted record of the resources that verified clean, stored next to the
+ * export as "<export>.ledger" (one "$absoluteRef=changedVersion" line each).
+ *
+ * In incremental mode (-Dverify.incremental=true) only resources that are new,
+ * changed since their last clean verification, or previously failed are driven
+ * through the browser, plus a random sample of unchanged ones
+ * (-Dverify.sampleRate, default 0.05; -Dverify.sampleSeed to repeat a run).
+ * A shard of a sharded run keeps its own "<export>.shard-I-of-N.ledger", so
+ * shards started on one machine never overwrite each other's records.
+ */
+public class RunLedger {
+
+    private final Path file;
+    private final Properties verified = new Properties();
+    private final boolean incremental;
+    private final double sampleRate;
+    private final Random random;
+
+    RunLedger(Path file, boolean incremental, double sampleRate, long seed) {
+        this.file = file;
+        this.incremental = incremental;
+        this.sampleRate = sampleRate;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Loads the ledger for the given export with the settings from the system properties.
+     * A missing or unreadable ledger simply means nothing is known to be clean yet.
+     */
+    public static RunLedger forExport(Path jsonFile) {
+        return forExport(jsonFile, new Shard(0, 1));
+    }
+
+    public static RunLedger forExport(Path jsonFile, Shard shard) {
+        long seed = Long.getLong("verify.sampleSeed", System.nanoTime());
+        String suffix = shard.isSharded() ? "." + shard.name() + ".ledger" : ".ledger";
+        RunLedger ledger = new RunLedger(jsonFile.resolveSibling(jsonFile.getFileName() + suffix),
+                Boolean.getBoolean("verify.incremental"),
+                Double.parseDouble(System.getProperty("verify.sampleRate", "0.05")), seed);
+        if (Files.isRegularFile(ledger.file)) {
+            try (Reader in = Files.newBufferedReader(ledger.file, StandardCharsets.UTF_8)) {
+                ledger.verified.load(in);
+            } catch (IOException e) {
+                System.out.println("Unable to read run ledger " + ledger.file + ": " + e.getMessage());
+            }
+        }
+        if (ledger.incremental) {
+            System.out.println("Incremental mode: " + ledger.verified.size() + " resources verified clean before"
+                    + " | sampleRate=" + ledger.sampleRate + " | sampleSeed=" + seed);
+        }
+        return ledger;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    // True if the resource verified clean at its current changedVersion
+    public boolean isVerifiedClean(Resource resource) {
+        return resource.absoluteRef != null
+                && String.valueOf(resource.changedVersion).equals(verified.getProperty(resource.absoluteRef));
+    }
+
+    /**
+     * Resources to drive through the browser: all of them in full mode; in incremental
+     * mode the new/changed/failed ones plus a random sample of the unchanged ones.
+     */
+    public <R extends Resource> List<R> select(List<R> resources, String type) {
+        if (!incremental) return resources;
+        List<R> selected = new ArrayList<>();
+        int changed = 0, sampled = 0;
+        for (R resource : resources) {
+            if (!isVerifiedClean(resource)) {
+                selected.add(resource);
+                changed++;
+            } else if (random.nextDouble() < sampleRate) {
+                selected.add(resource);
+                sampled++;
+            }
+        }
+        System.out.println("Incremental " + type + ": " + changed + " new/changed + " + sampled
+                + " sampled of " + resources.size() + " (skipping " + (resources.size() - selected.size()) + ")");
+        return selected;
+    }
+
+    // Forget a resource before it is checked, so a failure never leaves it marked clean
+    public synchronized void forget(Resource resource) {
+        if (resource.absoluteRef != null) verified.remove(resource.absoluteRef);
+    }
+
+    public synchronized void recordClean(Resource resource) {
+        if (resource.absoluteRef != null) {
+            verified.setProperty(resource.absoluteRef, String.valueOf(resource.changedVersion));
+        }
+    }
+
+    // Writes the ledger (via a temporary file, so an aborted run never truncates it)
+    public synchronized void save(long rev) {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                verified.store(out, "Resources verified clean ($absoluteRef=changedVersion), project rev " + rev);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.out.println("Unable to write run ledger " + file + ": " + e.getMessage());
+        }
+    }
+}
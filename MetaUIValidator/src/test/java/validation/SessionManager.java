@@ -0,0 +1,416 @@
+package validation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+/**
+ * Hands out logged-in browsers, logging in through the UI as rarely as possible:
+ *
+ *  - Warm pool: browsers given back with release() stay open for the next
+ *    test class in the same JVM; they are quit when the JVM exits.
+ *  - Authentication snapshot: after a UI login the cookies and localStorage are
+ *    saved (-Dsession.stateFile, default target/session-state.json) and restored
+ *    into new browsers, and by later runs, while younger than
+ *    -Dsession.maxAgeMinutes (default 30). The file holds live credentials (auth
+ *    cookies, httpOnly ones included, and tokens in localStorage), so it is
+ *    written readable by its owner only.
+ *  - -Dsession.keepAlive=true keeps the browsers running after the JVM exits
+ *    (remote debugging ports from -Dsession.debugPort, default 9222) and the next
+ *    run attaches to them instead of starting Chrome.
+ *
+ * A browser is only handed out after a health check: the page answers, and the
+ * logged-in marker is shown (-Dsession.loggedInSelector, a CSS selector; default
+ * -Dexplorer.container, else [role="tree"]); else the snapshot is restored, or
+ * the UI login runs.
+ * Browsers are started with the BrowserProfile of -Dbrowser.profile, on this
+ * machine, or with -Dselenium.remoteUrl=http://localhost:4444 on a Selenium
+ * Grid or standalone node (started locally or elsewhere; keepAlive does not apply).
+ */
+public class SessionManager {
+
+    // Application under test (-Dapp.url)
+    static final String APP_URL = System.getProperty("app.url", "https://app url.com"); // update
+
+    private static final boolean KEEP_ALIVE = Boolean.getBoolean("session.keepAlive");
+    private static final int DEBUG_PORT = Integer.getInteger("session.debugPort", 9222);
+    private static final Duration MAX_AGE = Duration.ofMinutes(Long.getLong("session.maxAgeMinutes", 30));
+    private static final Path STATE_FILE = Paths.get(System.getProperty("session.stateFile", "target/session-state.json"));
+    private static final String REMOTE_URL = System.getProperty("selenium.remoteUrl");
+    // Shown only to a logged-in user (CSS selector): the explorer tree, or the configured explorer container
+    private static final String LOGGED_IN = System.getProperty("session.loggedInSelector",
+            System.getProperty("explorer.container", "[role=\"tree\"]"));
+    private static final long LOGIN_WAIT_MS = Long.getLong("ui.waitTimeoutMs", 10000);
+
+    private static final String READ_STORAGE =
+            "var out = {};"
+            + "for (var i = 0; i < localStorage.length; i++) {"
+            + "  var key = localStorage.key(i); out[key] = localStorage.getItem(key);"
+            + "}"
+            + "return out;";
+    private static final String WRITE_STORAGE =
+            "var values = arguments[0];"
+            + "for (var key in values) localStorage.setItem(key, values[key]);";
+
+    private static final SessionManager SHARED = new SessionManager(BrowserProfile.fromSystemProperty());
+
+    // A browser this manager started or attached to
+    private static final class Browser {
+        final WebDriver driver;
+        final ChromeDriverService service; // null for a remote browser
+        final int port; // remote debugging port with -Dsession.keepAlive, else 0
+
+        Browser(WebDriver driver, ChromeDriverService service, int port) {
+            this.driver = driver;
+            this.service = service;
+            this.port = port;
+        }
+    }
+
+    private final Deque<Browser> idle = new ArrayDeque<>();
+    private final Map<WebDriver, Browser> inUse = new IdentityHashMap<>();
+    private final Set<Integer> ports = new HashSet<>();
+    private final BrowserProfile profile;
+    private JSONObject state;
+
+    // The shared manager, or a separate one (with its own warm pool) for a benchmark
+    SessionManager(BrowserProfile profile) {
+        this.profile = profile;
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "session-manager-shutdown"));
+    }
+
+    // The manager shared by every test class in this JVM
+    public static SessionManager shared() {
+        return SHARED;
+    }
+
+    /**
+     * A logged-in browser: a warm one from the pool if one is healthy, else a
+     * new (or, with keepAlive, a still running) one, logged in by restoring the
+     * saved session or through the login UI.
+     */
+    public WebDriver acquire() {
+        long start = System.nanoTime();
+        Browser browser;
+        String how = "warm";
+        while ((browser = poll()) != null && !responds(browser.driver)) {
+            System.out.println("Discarding unresponsive browser");
+            discard(browser);
+        }
+        if (browser == null) {
+            browser = start();
+            how = "new";
+        }
+        try {
+            how += ", " + authenticate(browser.driver);
+        } catch (RuntimeException e) {
+            discard(browser);
+            throw e;
+        }
+        synchronized (this) {
+            inUse.put(browser.driver, browser);
+        }
+        System.out.printf("Browser session ready in %d ms (%s)%n", (System.nanoTime() - start) / 1_000_000, how);
+        return browser.driver;
+    }
+
+    // Gives a browser back to the warm pool (accepts the CommandCounter-decorated driver)
+    public void release(WebDriver driver) {
+        Browser browser;
+        synchronized (this) {
+            while (!inUse.containsKey(driver) && driver instanceof WrapsDriver) driver = ((WrapsDriver) driver).getWrappedDriver();
+            browser = inUse.remove(driver);
+        }
+        if (browser == null) {
+            driver.quit();
+            return;
+        }
+        if (!responds(browser.driver)) {
+            discard(browser);
+            return;
+        }
+        synchronized (this) {
+            idle.push(browser);
+        }
+    }
+
+    private synchronized Browser poll() {
+        return idle.poll();
+    }
+
+    /**
+     * Makes sure the browser is logged in: already (the logged-in marker is
+     * shown), by restoring the saved cookies and localStorage, or through the
+     * login UI. Returns which. The session is only saved once the marker shows
+     * after the UI login, so a login page is never snapshotted.
+     */
+    private String authenticate(WebDriver driver) {
+        if (loggedIn(driver, 0)) return "logged in";
+        JSONObject saved = savedState();
+        if (saved != null) {
+            restore(driver, saved);
+            if (loggedIn(driver, LOGIN_WAIT_MS)) return "session restored";
+            System.out.println("Saved session not accepted, logging in");
+        }
+        login(driver);
+        if (!loggedIn(driver, LOGIN_WAIT_MS)) {
+            System.out.println("No " + LOGGED_IN + " after the login steps, session not saved"
+                    + " (check SessionManager#login and -Dsession.loggedInSelector)");
+            return "UI login, not confirmed";
+        }
+        save(driver);
+        return "UI login";
+    }
+
+    private void login(WebDriver driver) {
+        driver.get(APP_URL);
+        // TODO: put your login steps here
+        // Example login — replace with your locators/credentials:
+        // driver.findElement(By.id("user")).sendKeys("Admin");
+        // driver.findElement(By.id("password")).sendKeys("Admin123");
+        // driver.findElement(By.xpath("//button[@type=submit]")).click();
+    }
+
+    // Health check: the page answers a script
+    private static boolean responds(WebDriver driver) {
+        try {
+            ((JavascriptExecutor) driver).executeScript("return document.readyState");
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    // Logged in: the page shows the LOGGED_IN element, checked every 100 ms for up to waitMs
+    private static boolean loggedIn(WebDriver driver, long waitMs) {
+        long deadline = System.currentTimeMillis() + waitMs;
+        while (true) {
+            try {
+                if (Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript(
+                        "return document.querySelector(arguments[0]) !== null;", LOGGED_IN))) {
+                    return true;
+                }
+            } catch (RuntimeException e) {
+                // page still loading, or not the app
+            }
+            if (System.currentTimeMillis() >= deadline) return false;
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    // Loads the app, then sets the saved cookies and localStorage and reloads
+    private static void restore(WebDriver driver, JSONObject saved) {
+        driver.get(APP_URL);
+        for (Object c : (JSONArray) saved.get("cookies")) {
+            JSONObject cookie = (JSONObject) c;
+            Number expiry = (Number) cookie.get("expiry");
+            try {
+                driver.manage().addCookie(new Cookie((String) cookie.get("name"), (String) cookie.get("value"),
+                        (String) cookie.get("domain"), (String) cookie.get("path"),
+                        expiry == null ? null : new Date(expiry.longValue()),
+                        Boolean.TRUE.equals(cookie.get("secure")), Boolean.TRUE.equals(cookie.get("httpOnly")),
+                        (String) cookie.get("sameSite")));
+            } catch (RuntimeException e) {
+                System.out.println("Could not restore cookie " + cookie.get("name") + " | " + e.getMessage());
+            }
+        }
+        ((JavascriptExecutor) driver).executeScript(WRITE_STORAGE, saved.get("localStorage"));
+        driver.navigate().refresh();
+    }
+
+    // The saved session, if it is young enough; read from the state file once
+    @SuppressWarnings("unchecked")
+    private synchronized JSONObject savedState() {
+        if (state == null && Files.isRegularFile(STATE_FILE)) {
+            try (Reader in = Files.newBufferedReader(STATE_FILE, StandardCharsets.UTF_8)) {
+                state = (JSONObject) new JSONParser().parse(in);
+            } catch (IOException | ParseException | ClassCastException e) {
+                System.out.println("Unable to read session state " + STATE_FILE + ": " + e.getMessage());
+            }
+        }
+        if (state == null) return null;
+        Number savedAt = (Number) state.get("savedAt");
+        boolean fresh = savedAt != null && System.currentTimeMillis() - savedAt.longValue() < MAX_AGE.toMillis()
+                && APP_URL.equals(state.get("url"));
+        return fresh ? state : null;
+    }
+
+    // Snapshots the cookies and localStorage of a logged-in browser (via a temporary file)
+    @SuppressWarnings("unchecked")
+    private synchronized void save(WebDriver driver) {
+        JSONObject snapshot = new JSONObject();
+        snapshot.put("savedAt", System.currentTimeMillis());
+        snapshot.put("url", APP_URL);
+        JSONArray cookies = new JSONArray();
+        for (Cookie cookie : driver.manage().getCookies()) {
+            JSONObject c = new JSONObject();
+            c.put("name", cookie.getName());
+            c.put("value", cookie.getValue());
+            c.put("domain", cookie.getDomain());
+            c.put("path", cookie.getPath());
+            if (cookie.getExpiry() != null) c.put("expiry", cookie.getExpiry().getTime());
+            c.put("secure", cookie.isSecure());
+            c.put("httpOnly", cookie.isHttpOnly());
+            c.put("sameSite", cookie.getSameSite());
+            cookies.add(c);
+        }
+        snapshot.put("cookies", cookies);
+        Object storage = ((JavascriptExecutor) driver).executeScript(READ_STORAGE);
+        snapshot.put("localStorage", storage instanceof Map ? new JSONObject((Map<Object, Object>) storage) : new JSONObject());
+        state = snapshot;
+
+        Path tmp = STATE_FILE.resolveSibling(STATE_FILE.getFileName() + ".tmp");
+        try {
+            if (STATE_FILE.getParent() != null) Files.createDirectories(STATE_FILE.getParent());
+            createPrivate(tmp);
+            try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                snapshot.writeJSONString(out);
+            }
+            Files.move(tmp, STATE_FILE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.out.println("Unable to write session state " + STATE_FILE + ": " + e.getMessage());
+        }
+    }
+
+    // Creates an empty file only its owner can read and write (rw------- where the file system has POSIX permissions)
+    private static void createPrivate(Path file) throws IOException {
+        Files.deleteIfExists(file);
+        if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+            return;
+        }
+        File created = Files.createFile(file).toFile();
+        created.setReadable(false, false);
+        created.setWritable(false, false);
+        created.setReadable(true, true);
+        created.setWritable(true, true);
+    }
+
+    /**
+     * Starts a browser. With keepAlive it gets its own remote debugging port, and
+     * a browser still running there from an earlier run is attached to instead.
+     */
+    private Browser start() {
+        if (REMOTE_URL != null) return startRemote();
+        int port = KEEP_ALIVE ? nextPort() : 0;
+        ChromeDriverService service = ChromeDriverService.createDefaultService();
+        ChromeOptions options = profile.options();
+        boolean attach = port > 0 && listening(port);
+        if (attach) {
+            options.setExperimentalOption("debuggerAddress", "127.0.0.1:" + port);
+        } else if (port > 0) {
+            options.addArguments("--remote-debugging-port=" + port,
+                    "--user-data-dir=" + Paths.get("target", "chrome-profiles", String.valueOf(port)).toAbsolutePath());
+            options.setExperimentalOption("detach", true);
+        }
+        try {
+            ChromeDriver driver = new ChromeDriver(service, options);
+            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(5));
+            if (!attach && profile.maximize()) driver.manage().window().maximize();
+            profile.apply(driver);
+            System.out.println((attach ? "Attached to running browser on port " + port : "Launched browser")
+                    + " (" + profile.name().toLowerCase() + " profile)");
+            return new Browser(driver, service, port);
+        } catch (RuntimeException e) {
+            service.stop();
+            freePort(port);
+            throw new RuntimeException("Failed to start browser", e);
+        }
+    }
+
+    // A browser on the Selenium Grid / node at -Dselenium.remoteUrl, augmented for DevTools commands
+    private Browser startRemote() {
+        try {
+            WebDriver driver = new Augmenter().augment(new RemoteWebDriver(new URL(REMOTE_URL), profile.options()));
+            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(5));
+            if (profile.maximize()) driver.manage().window().maximize();
+            profile.apply(driver);
+            System.out.println("Started browser on " + REMOTE_URL + " (" + profile.name().toLowerCase() + " profile)");
+            return new Browser(driver, null, 0);
+        } catch (MalformedURLException | RuntimeException e) {
+            throw new RuntimeException("Failed to start browser on " + REMOTE_URL, e);
+        }
+    }
+
+    private synchronized int nextPort() {
+        int port = DEBUG_PORT;
+        while (!ports.add(port)) port++;
+        return port;
+    }
+
+    private synchronized void freePort(int port) {
+        ports.remove(port);
+    }
+
+    private static boolean listening(int port) {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("127.0.0.1", port), 200);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void discard(Browser browser) {
+        try {
+            browser.driver.quit();
+        } catch (RuntimeException e) {
+            System.out.println("Could not quit browser | " + e.getMessage());
+        }
+        if (browser.service != null) browser.service.stop();
+        freePort(browser.port);
+    }
+
+    // At JVM exit: quits the browsers, or with keepAlive only stops their drivers so they keep running
+    void shutdown() {
+        Deque<Browser> all;
+        synchronized (this) {
+            all = new ArrayDeque<>(idle);
+            all.addAll(inUse.values());
+            idle.clear();
+            inUse.clear();
+        }
+        for (Browser browser : all) {
+            if (KEEP_ALIVE && browser.service != null) browser.service.stop();
+            else discard(browser);
+        }
+    }
+}
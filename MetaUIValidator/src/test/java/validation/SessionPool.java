@@ -0,0 +1,167 @@
+package validation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.openqa.selenium.WebDriver;
+
+import pages.CommandCounter;
+import pages.ProjectDetailsPage;
+import pages.ProjectExplorerPage;
+
+/**
+ * A fixed number of browser sessions (-Dverify.sessions, default 1), each with
+ * its own page objects, and a work queue that spreads resources across them.
+ *
+ * Page objects keep per-browser state (the explorer tree, the waits), so a
+ * session is only ever used by one worker thread. Work items (e.g. the
+ * resources of one explorer folder) are queued: a session takes the next item
+ * when it is done with its last one, so slow sessions do not hold up the others.
+ */
+public class SessionPool implements AutoCloseable {
+
+    // One browser and the page objects driving it
+    public static class Session {
+        public final int id;
+        public final WebDriver driver;
+        public final ProjectExplorerPage explorer;
+        public final ProjectDetailsPage details;
+        public final CommandCounter commands;
+
+        Session(int id, WebDriver driver, CommandCounter commands) {
+            this.id = id;
+            this.driver = driver;
+            this.explorer = new ProjectExplorerPage(driver);
+            this.details = new ProjectDetailsPage(driver);
+            this.commands = commands;
+        }
+    }
+
+    private final List<Session> sessions = new ArrayList<>();
+    private final ExecutorService workers;
+    private final Consumer<WebDriver> release;
+
+    public SessionPool(Function<CommandCounter, WebDriver> launcher, Consumer<WebDriver> release) {
+        this(Integer.getInteger("verify.sessions", 1), launcher, release);
+    }
+
+    public SessionPool(int size, Function<CommandCounter, WebDriver> launcher) {
+        this(size, launcher, WebDriver::quit);
+    }
+
+    /**
+     * Launches the sessions in parallel. The launcher starts and logs in one
+     * browser, sending its commands through the given counter; close() hands
+     * each browser to release (e.g. SessionManager.release, or quit).
+     */
+    public SessionPool(int size, Function<CommandCounter, WebDriver> launcher, Consumer<WebDriver> release) {
+        if (size < 1) throw new IllegalArgumentException("Session pool size must be at least 1: " + size);
+        this.release = release;
+        AtomicInteger threads = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(size, r -> {
+            Thread t = new Thread(r, "verify-session-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        List<Future<Session>> launched = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            int id = i + 1;
+            launched.add(workers.submit(() -> {
+                CommandCounter commands = new CommandCounter();
+                return new Session(id, launcher.apply(commands), commands);
+            }));
+        }
+        // wait for every launch, so the browsers that did start are quit if one failed
+        Throwable failure = null;
+        for (Future<Session> session : launched) {
+            try {
+                sessions.add(session.get());
+            } catch (ExecutionException e) {
+                if (failure == null) failure = e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (failure == null) failure = e;
+            }
+        }
+        if (failure != null) {
+            close();
+            throw new RuntimeException("Failed to launch browser sessions", failure);
+        }
+        System.out.println("Browser sessions: " + size);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public List<Session> sessions() {
+        return sessions;
+    }
+
+    // The session used for work that needs one browser, such as the presence sweep
+    public Session first() {
+        return sessions.get(0);
+    }
+
+    /**
+     * Runs the work on every item, items taken from a shared queue by one worker
+     * per session. Returns when all items are done; an exception thrown by the
+     * work stops its worker and is rethrown here.
+     */
+    public <T> void run(List<T> items, BiConsumer<Session, T> work) {
+        Queue<T> queue = new ConcurrentLinkedQueue<>(items);
+        if (sessions.size() == 1) {
+            drain(first(), queue, work);
+            return;
+        }
+        List<Future<?>> running = new ArrayList<>();
+        for (Session session : sessions) running.add(workers.submit(() -> drain(session, queue, work)));
+        RuntimeException failure = null;
+        for (Future<?> worker : running) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                if (failure == null) failure = new RuntimeException("Failed to verify resources", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Failed to verify resources: interrupted", e);
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    private static <T> void drain(Session session, Queue<T> queue, BiConsumer<Session, T> work) {
+        for (T item = queue.poll(); item != null; item = queue.poll()) work.accept(session, item);
+    }
+
+    // WebDriver commands sent by all sessions
+    public long commandCount() {
+        long total = 0;
+        for (Session session : sessions) total += session.commands.count();
+        return total;
+    }
+
+    // Releases every browser
+    @Override
+    public void close() {
+        for (Session session : sessions) {
+            try {
+                release.accept(session.driver);
+            } catch (RuntimeException e) {
+                System.out.println("Could not release browser session " + session.id + " | " + e.getMessage());
+            }
+        }
+        sessions.clear();
+        workers.shutdownNow();
+    }
+}
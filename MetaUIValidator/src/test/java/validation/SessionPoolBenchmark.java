@@ -0,0 +1,253 @@
+package validation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationHandler;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import pages.CommandCounter;
+import utils.Fingerprint;
+import utils.JsonParserUtil;
+import utils.JsonParserUtil.Entity;
+import utils.JsonParserUtil.EnumLiteral;
+import utils.JsonParserUtil.Enumeration;
+import utils.JsonParserUtil.FileFolder;
+import utils.JsonParserUtil.Flow;
+import utils.JsonParserUtil.Resource;
+import utils.ProjectModel;
+import utils.SyntheticExport;
+
+/**
+ * Throughput of VerifyTest's verification at 1, 2, 4 and 8 browser sessions,
+ * in resources per minute.
+ *
+ * A verification spends its time waiting for the browser, so the browsers are
+ * simulated: each session renders the explorer tree of a synthetic export and
+ * answers every command after a fixed round-trip latency, like a remote browser.
+ *   java -cp target/test-classes:... validation.SessionPoolBenchmark 200 10 [read]
+ * (entities in the synthetic export, latency per command in ms). The details
+ * panels match the export, so each resource is verified by its fingerprint;
+ * with "read" the page fingerprints differ and every panel is read and compared.
+ */
+public class SessionPoolBenchmark {
+
+    private static final int[] POOL_SIZES = {1, 2, 4, 8};
+
+    public static void main(String[] args) throws IOException {
+        int entities = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        long latency = args.length > 1 ? Long.parseLong(args[1]) : 10;
+        boolean read = args.length > 2 && "read".equals(args[2]);
+        Path export = Files.createTempFile("pool-benchmark", ".json");
+        SyntheticExport.write(export, entities, 10);
+        PrintStream out = System.out;
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            ProjectModel model = JsonParserUtil.getProjectModel(export.toString());
+            Map<List<String>, Resource> app = app(model);
+            out.printf("%d resources, %d ms per WebDriver command%s%n", app.size(), latency,
+                    read ? ", every panel read and compared" : "");
+            for (int size : POOL_SIZES) {
+                FindingsCollector findings = new FindingsCollector();
+                long start = System.nanoTime();
+                try (SessionPool sessions = new SessionPool(size, c -> CommandCounter.attach(browser(app, latency, read), c));
+                     VerificationEngine engine = new VerificationEngine(model, sessions, RunLedger.forExport(export), findings)) {
+                    for (ResourceSpec<?> spec : Arrays.asList(ResourceSpecs.ENTITIES, ResourceSpecs.ENUMERATIONS,
+                            ResourceSpecs.FLOWS, ResourceSpecs.FILE_FOLDERS)) {
+                        engine.verify(spec);
+                    }
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                out.printf("%d session(s): %d verified in %.1f s | %.0f resources/min | first verified after %d ms%n", size,
+                        findings.count(Finding.Kind.VERIFIED), seconds, app.size() * 60 / seconds, findings.timeToFirstVerified());
+            }
+        } finally {
+            System.setOut(out);
+            Files.deleteIfExists(export);
+            Files.deleteIfExists(export.resolveSibling(export.getFileName() + ".snapshot"));
+        }
+    }
+
+    // Every resource of the four verified types by explorer path
+    private static Map<List<String>, Resource> app(ProjectModel model) {
+        Map<List<String>, Resource> app = new LinkedHashMap<>();
+        List<Resource> resources = new ArrayList<>();
+        resources.addAll(model.getEntities());
+        resources.addAll(model.getEnumerations());
+        resources.addAll(model.getFlows());
+        resources.addAll(model.getFileFolders());
+        for (Resource resource : resources) app.put(pages.ExplorerPaths.pathOf(model, resource), resource);
+        return app;
+    }
+
+    /**
+     * One simulated browser: the explorer tree of the resources (a click selects a
+     * node and opens or closes it), the Name input of the selected node, and the
+     * panel of the selected resource (its fingerprint, or with read its values).
+     */
+    private static WebDriver browser(Map<List<String>, Resource> app, long latency, boolean read) {
+        Map<List<String>, List<String>> children = new HashMap<>();
+        for (List<String> path : app.keySet()) {
+            for (int i = 0; i < path.size(); i++) {
+                List<String> siblings = children.computeIfAbsent(path.subList(0, i), p -> new ArrayList<>());
+                if (!siblings.contains(path.get(i))) siblings.add(path.get(i));
+            }
+        }
+        Set<List<String>> open = new HashSet<>();
+        List<List<String>> handles = new ArrayList<>();
+        AtomicReference<List<String>> selected = new AtomicReference<>(Collections.<String>emptyList());
+        Duration[] implicitWait = {Duration.ZERO};
+        // DOM mutations so far, and whether the Name input is still the one marked before the last click
+        long[] mutations = {0};
+        boolean[] stale = {false};
+
+        WebElement nameInput = (WebElement) proxy(new Class<?>[]{WebElement.class}, (p, m, a) -> {
+            pause(latency);
+            if ("getAttribute".equals(m.getName())) {
+                List<String> node = selected.get();
+                return node.isEmpty() ? "" : node.get(node.size() - 1);
+            }
+            return null;
+        });
+        WebDriver.Timeouts timeouts = (WebDriver.Timeouts) proxy(new Class<?>[]{WebDriver.Timeouts.class}, (p, m, a) -> {
+            if ("getImplicitWaitTimeout".equals(m.getName())) return implicitWait[0];
+            if ("implicitlyWait".equals(m.getName())) implicitWait[0] = (Duration) a[0];
+            return p;
+        });
+        WebDriver.Options options = (WebDriver.Options) proxy(new Class<?>[]{WebDriver.Options.class}, (p, m, a) -> timeouts);
+        return (WebDriver) proxy(new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, (p, m, a) -> {
+            switch (m.getName()) {
+                case "manage":
+                    return options;
+                case "quit":
+                    return null;
+                case "findElements":
+                    pause(latency);
+                    return Collections.singletonList(nameInput);
+                case "findElement":
+                    pause(latency);
+                    String locator = a[0].toString();
+                    List<String> node = handles.get(Integer.parseInt(locator.substring(locator.indexOf("='") + 2, locator.lastIndexOf('\''))));
+                    return proxy(new Class<?>[]{WebElement.class}, (e, em, ea) -> {
+                        if ("click".equals(em.getName())) {
+                            pause(latency);
+                            mutations[0]++;
+                            if (!node.equals(selected.get())) stale[0] = false;
+                            selected.set(node);
+                            if (children.containsKey(node) && !open.remove(node)) open.add(node);
+                        }
+                        return null;
+                    });
+                case "executeScript":
+                    pause(latency);
+                    String script = (String) a[0];
+                    if (script.contains("data-uiv-stale")) {
+                        List<String> shown = selected.get();
+                        String name = shown.isEmpty() ? null : shown.get(shown.size() - 1);
+                        if (script.contains("setAttribute('data-uiv-stale'")) {
+                            stale[0] = name != null;
+                            return Arrays.<Object>asList(mutations[0], name);
+                        }
+                        return Arrays.<Object>asList(mutations[0], name, 0L, stale[0] && name != null);
+                    }
+                    if (script.contains("treeitem")) {
+                        List<Object> rows = new ArrayList<>();
+                        rows(Collections.<String>emptyList(), children, open, handles, selected.get(), rows);
+                        return rows;
+                    }
+                    Resource resource = app.get(selected.get());
+                    if (resource == null) return null;
+                    if (script.contains("Math.imul")) return read ? "" : fingerprint(resource);
+                    return panel(resource);
+                default:
+                    return null;
+            }
+        });
+    }
+
+    // Rows of the snapshot script: label, depth, expanded, children shown, handle, selected, expandable
+    private static void rows(List<String> path, Map<List<String>, List<String>> children, Set<List<String>> open,
+                             List<List<String>> handles, List<String> selected, List<Object> rows) {
+        for (String label : children.getOrDefault(path, Collections.<String>emptyList())) {
+            List<String> node = new ArrayList<>(path);
+            node.add(label);
+            int handle = handles.indexOf(node);
+            if (handle < 0) {
+                handles.add(node);
+                handle = handles.size() - 1;
+            }
+            boolean expanded = open.contains(node);
+            long shown = expanded ? children.getOrDefault(node, Collections.<String>emptyList()).size() : 0;
+            rows.add(Arrays.asList(label, (long) path.size(), expanded, shown, String.valueOf(handle), node.equals(selected),
+                    children.containsKey(node)));
+            if (expanded) rows(node, children, open, handles, selected, rows);
+        }
+    }
+
+    // Result of the panel script for a resource: one list of values per key
+    private static Map<String, List<Object>> panel(Resource resource) {
+        Map<String, List<Object>> values = new HashMap<>();
+        List<Object> rows = new ArrayList<>();
+        if (resource instanceof Entity) {
+            Entity entity = (Entity) resource;
+            values.put("name", Collections.<Object>singletonList(entity.entityName));
+            for (int i = 0; i < entity.fields.size(); i++) {
+                rows.add(Arrays.<Object>asList(entity.fields.name(i), entity.fields.scalarType(i), entity.fields.isPk(i)));
+            }
+            values.put("fields", rows);
+        } else if (resource instanceof Enumeration) {
+            Enumeration enumeration = (Enumeration) resource;
+            values.put("name", Collections.<Object>singletonList(enumeration.name));
+            for (EnumLiteral literal : enumeration.literals) rows.add(literal.constant);
+            values.put("literals", rows);
+        } else if (resource instanceof Flow) {
+            Flow flow = (Flow) resource;
+            values.put("name", Collections.<Object>singletonList(flow.name));
+            for (int i = 0; i < flow.inputs.size(); i++) {
+                rows.add(Arrays.<Object>asList(flow.inputs.name(i), flow.inputs.scalarType(i), null));
+            }
+            values.put("inputs", rows);
+        } else {
+            FileFolder folder = (FileFolder) resource;
+            values.put("name", Collections.<Object>singletonList(folder.name));
+            values.put("location", Collections.<Object>singletonList(folder.location));
+            values.put("citizenTool", Collections.<Object>singletonList(Boolean.TRUE.equals(folder.citizenToolEnabled)));
+        }
+        return values;
+    }
+
+    private static String fingerprint(Resource resource) {
+        if (resource instanceof Entity) return Fingerprint.of((Entity) resource);
+        if (resource instanceof Enumeration) return Fingerprint.of((Enumeration) resource);
+        if (resource instanceof Flow) return Fingerprint.of((Flow) resource);
+        return Fingerprint.of((FileFolder) resource);
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Object proxy(Class<?>[] interfaces, InvocationHandler handler) {
+        return java.lang.reflect.Proxy.newProxyInstance(SessionPoolBenchmark.class.getClassLoader(), interfaces, handler);
+    }
+}
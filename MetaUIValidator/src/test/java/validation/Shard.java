@@ -0,0 +1,105 @@
+package validation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import utils.JsonParserUtil.Resource;
+
+/**
+ * One shard of a run split across processes or machines (-Dshard.index from 0,
+ * -Dshard.count, default 0 of 1: everything).
+ *
+ * Every shard computes the same partition from the same export, so no
+ * coordination is needed: the resources of a type are taken most expensive
+ * first (cost, e.g. the number of fields, then a hash of $absoluteRef, so the
+ * order never depends on the export's order) and each goes to the shard with
+ * the least cost so far. Each shard keeps the resources assigned to it, in
+ * their export order.
+ */
+public class Shard {
+
+    public final int index;
+    public final int count;
+
+    public Shard(int index, int count) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + index + " of " + count);
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+    // Shard selected with -Dshard.index and -Dshard.count, the whole run if not set
+    public static Shard fromSystemProperties() {
+        return new Shard(Integer.getInteger("shard.index", 0), Integer.getInteger("shard.count", 1));
+    }
+
+    public boolean isSharded() {
+        return count > 1;
+    }
+
+    // e.g. "shard-2-of-4", used in file names
+    public String name() {
+        return "shard-" + index + "-of-" + count;
+    }
+
+    /**
+     * The resources of this shard, in their original order. The cost estimates
+     * how long a resource takes to verify (e.g. 1 + its field count).
+     */
+    public <R extends Resource> List<R> select(List<R> resources, ToIntFunction<R> cost, String type) {
+        if (!isSharded()) return resources;
+        int n = resources.size();
+        long[] costs = new long[n];
+        long[] hashes = new long[n];
+        List<Integer> order = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            costs[i] = cost.applyAsInt(resources.get(i));
+            hashes[i] = hash(key(resources.get(i)));
+            order.add(i);
+        }
+        order.sort(Comparator.<Integer>comparingLong(i -> -costs[i])
+                .thenComparingLong(i -> hashes[i])
+                .thenComparing(i -> key(resources.get(i))));
+
+        long[] loads = new long[count];
+        int[] owner = new int[n];
+        for (int i : order) {
+            int lightest = 0;
+            for (int s = 1; s < count; s++) {
+                if (loads[s] < loads[lightest]) lightest = s;
+            }
+            owner[i] = lightest;
+            loads[lightest] += costs[i];
+        }
+
+        List<R> selected = new ArrayList<>();
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            total += costs[i];
+            if (owner[i] == index) selected.add(resources.get(i));
+        }
+        System.out.println("Shard " + index + " of " + count + " " + type + ": " + selected.size() + " of " + n
+                + " resources, cost " + loads[index] + " of " + total);
+        return selected;
+    }
+
+    // $absoluteRef, or the $ref for resources without one
+    private static String key(Resource resource) {
+        if (resource.absoluteRef != null) return resource.absoluteRef;
+        return resource.ref != null ? resource.ref : "";
+    }
+
+    // 64-bit FNV-1a of the UTF-8 bytes: the same in every JVM
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
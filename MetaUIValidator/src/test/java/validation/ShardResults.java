@@ -0,0 +1,234 @@
+package validation;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import validation.Finding.Kind;
+
+/**
+ * Partial results of a sharded run, and the merge into one suite result.
+ *
+ * Each shard writes "shard-I-of-N.json" to -Dshard.resultDir (default
+ * target/shard-results): the export's rev and hash, its duration and time to
+ * the first verified resource, and per type and kind the exact count and the
+ * findings kept. Copy the shard files of all shards (only those: the rest of
+ * target/ holds the session state, see SessionManager) into one directory, then:
+ *   java -cp target/test-classes:... validation.ShardResults target/shard-results
+ * prints the combined summary, writes suite-result.json next to the shard files,
+ * and exits with 1 if anything is missing or mismatched, or a shard's file is
+ * missing or was written for another export.
+ */
+public class ShardResults {
+
+    static final String SUITE_FILE = "suite-result.json";
+
+    public static Path resultDir() {
+        return Paths.get(System.getProperty("shard.resultDir", Paths.get("target", "shard-results").toString()));
+    }
+
+    // Writes this shard's results (via a temporary file, so the merge never reads half a file)
+    @SuppressWarnings("unchecked")
+    public static Path write(Path dir, Shard shard, long rev, String hash, long durationMs,
+                             FindingsCollector findings) {
+        JSONObject result = toJson(findings);
+        result.put("shard", shard.index);
+        result.put("shardCount", shard.count);
+        result.put("rev", rev);
+        result.put("hash", hash);
+        result.put("durationMs", durationMs);
+        result.put("firstVerifiedMs", findings.timeToFirstVerified());
+        Path file = dir.resolve(shard.name() + ".json");
+        write(file, result);
+        System.out.println("Shard results written to " + file);
+        return file;
+    }
+
+    public static void main(String[] args) {
+        Path dir = args.length > 0 ? Paths.get(args[0]) : resultDir();
+        System.exit(merge(dir) ? 0 : 1);
+    }
+
+    /**
+     * Merges the shard files of a directory and prints the suite summary. True
+     * if every shard reported and nothing is missing or mismatched.
+     */
+    @SuppressWarnings("unchecked")
+    static boolean merge(Path dir) {
+        Map<Integer, JSONObject> shards = new TreeMap<>();
+        int count = 0;
+        Object rev = null, hash = null;
+        boolean complete = true;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "shard-*-of-*.json")) {
+            for (Path file : files) {
+                JSONObject shard = read(file);
+                int n = ((Number) shard.get("shardCount")).intValue();
+                if (count == 0) {
+                    count = n;
+                    rev = shard.get("rev");
+                    hash = shard.get("hash");
+                }
+                if (n != count || !same(rev, shard.get("rev")) || !same(hash, shard.get("hash"))) {
+                    System.out.println("Skipping " + file.getFileName() + ": written for another run (shard count "
+                            + n + ", rev " + shard.get("rev") + ")");
+                    complete = false;
+                    continue;
+                }
+                shards.put(((Number) shard.get("shard")).intValue(), shard);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read shard results in " + dir, e);
+        }
+        if (shards.isEmpty()) {
+            System.out.println("No shard results in " + dir);
+            return false;
+        }
+
+        FindingsCollector merged = new FindingsCollector();
+        long longest = 0, firstVerified = -1;
+        for (int i = 0; i < count; i++) {
+            JSONObject shard = shards.get(i);
+            if (shard == null) {
+                System.out.println("Shard " + i + " of " + count + ": no results");
+                complete = false;
+                continue;
+            }
+            fromJson(shard, merged);
+            long duration = ((Number) shard.get("durationMs")).longValue();
+            long first = ((Number) shard.get("firstVerifiedMs")).longValue();
+            longest = Math.max(longest, duration);
+            if (first >= 0 && (firstVerified < 0 || first < firstVerified)) firstVerified = first;
+            System.out.printf("Shard %d of %d: %d verified, %d issues in %.1f s%n", i, count,
+                    countOf(shard, Kind.VERIFIED), countOf(shard, Kind.MISSING) + countOf(shard, Kind.UNEXPECTED)
+                            + countOf(shard, Kind.MISMATCH), duration / 1e3);
+        }
+
+        System.out.println("\n----SUITE SUMMARY (" + shards.size() + " of " + count + " shards) ----");
+        System.out.println("Total missing items: " + merged.count(Kind.MISSING));
+        System.out.println("Total mismatches: " + (merged.count(Kind.MISMATCH) + merged.count(Kind.UNEXPECTED)));
+        System.out.println("Total verified resources: " + merged.count(Kind.VERIFIED));
+        System.out.printf("Slowest shard: %.1f s | time to first verified resource: %s%n", longest / 1e3,
+                firstVerified < 0 ? "none verified" : firstVerified + " ms");
+        boolean clean = true;
+        for (String type : merged.types()) {
+            if (!merged.hasIssues(type)) continue;
+            clean = false;
+            System.out.println();
+            System.out.print(merged.issues(type, type));
+        }
+
+        JSONObject suite = toJson(merged);
+        suite.put("shardCount", count);
+        suite.put("shardsReported", shards.size());
+        suite.put("rev", rev);
+        suite.put("hash", hash);
+        suite.put("durationMs", longest);
+        suite.put("firstVerifiedMs", firstVerified);
+        write(dir.resolve(SUITE_FILE), suite);
+        return complete && clean;
+    }
+
+    // Per type and kind: {"count": n, "kept": [finding, ...]}
+    @SuppressWarnings("unchecked")
+    private static JSONObject toJson(FindingsCollector findings) {
+        JSONObject types = new JSONObject();
+        for (String type : findings.types()) {
+            JSONObject kinds = new JSONObject();
+            for (Kind kind : Kind.values()) {
+                long count = findings.count(type, kind);
+                if (count == 0) continue;
+                JSONArray kept = new JSONArray();
+                for (Finding finding : findings.examples(type, kind)) {
+                    JSONObject f = new JSONObject();
+                    f.put("ref", finding.ref);
+                    f.put("resource", finding.resource);
+                    f.put("check", finding.check);
+                    f.put("item", finding.item);
+                    // as printed: values such as rows have no JSON form
+                    f.put("expected", finding.expected == null ? null : String.valueOf(finding.expected));
+                    f.put("actual", finding.actual == null ? null : String.valueOf(finding.actual));
+                    f.put("detail", finding.detail);
+                    kept.add(f);
+                }
+                JSONObject entry = new JSONObject();
+                entry.put("count", count);
+                entry.put("kept", kept);
+                kinds.put(kind.name(), entry);
+            }
+            types.put(type, kinds);
+        }
+        JSONObject result = new JSONObject();
+        result.put("findings", types);
+        return result;
+    }
+
+    private static void fromJson(JSONObject result, FindingsCollector into) {
+        JSONObject types = (JSONObject) result.get("findings");
+        for (Object t : types.keySet()) {
+            String type = (String) t;
+            JSONObject kinds = (JSONObject) types.get(type);
+            for (Kind kind : Kind.values()) {
+                JSONObject entry = (JSONObject) kinds.get(kind.name());
+                if (entry == null) continue;
+                List<Finding> kept = new ArrayList<>();
+                for (Object o : (JSONArray) entry.get("kept")) {
+                    JSONObject f = (JSONObject) o;
+                    kept.add(new Finding(kind, type, (String) f.get("ref"), (String) f.get("resource"),
+                            (String) f.get("check"), (String) f.get("item"), f.get("expected"), f.get("actual"),
+                            (String) f.get("detail")));
+                }
+                into.merge(type, kind, ((Number) entry.get("count")).longValue(), kept);
+            }
+        }
+    }
+
+    private static long countOf(JSONObject result, Kind kind) {
+        long total = 0;
+        JSONObject types = (JSONObject) result.get("findings");
+        for (Object kinds : types.values()) {
+            JSONObject entry = (JSONObject) ((JSONObject) kinds).get(kind.name());
+            if (entry != null) total += ((Number) entry.get("count")).longValue();
+        }
+        return total;
+    }
+
+    private static boolean same(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static JSONObject read(Path file) {
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return (JSONObject) new JSONParser().parse(in);
+        } catch (IOException | ParseException | ClassCastException e) {
+            throw new RuntimeException("Failed to read shard result " + file, e);
+        }
+    }
+
+    private static void write(Path file, JSONObject json) {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                json.writeJSONString(out);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write " + file, e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package validation;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import validation.Finding.Kind;
+
+/**
+ * ShardResults.merge: exact counts are summed across shards, and a merge
+ * with a shard missing, or with a shard file written for another export,
+ * fails.
+ */
+public class ShardResultsTest {
+
+    private static final long REV = 7;
+    private static final String HASH = "export-hash";
+
+    private Path dir;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        dir = Files.createTempDirectory("shard-results");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    // A shard that verified the given number of flows and found the given number of entity mismatches
+    private void writeShard(int index, int count, long rev, String hash, int verified, int mismatches) {
+        FindingsCollector findings = new FindingsCollector(2);
+        for (int i = 0; i < verified; i++) {
+            findings.add(new Finding(Kind.VERIFIED, "flows", "flw:F" + index + i, "Flow: F" + index + i,
+                    null, null, null, null, null));
+        }
+        for (int i = 0; i < mismatches; i++) {
+            findings.add(new Finding(Kind.MISMATCH, "entities", "ent:E" + index + i, "Entity: E" + index + i,
+                    "field type", "id", "INTEGER", "STRING", null));
+        }
+        ShardResults.write(dir, new Shard(index, count), rev, hash, 1000 + index, findings);
+    }
+
+    private JSONObject suite() throws IOException, ParseException {
+        try (Reader in = Files.newBufferedReader(dir.resolve(ShardResults.SUITE_FILE), StandardCharsets.UTF_8)) {
+            return (JSONObject) new JSONParser().parse(in);
+        }
+    }
+
+    private static long count(JSONObject result, String type, Kind kind) {
+        JSONObject kinds = (JSONObject) ((JSONObject) result.get("findings")).get(type);
+        JSONObject entry = kinds == null ? null : (JSONObject) kinds.get(kind.name());
+        return entry == null ? 0 : ((Number) entry.get("count")).longValue();
+    }
+
+    @Test
+    public void allShardsCleanMerge() throws Exception {
+        for (int i = 0; i < 3; i++) writeShard(i, 3, REV, HASH, 4 + i, 0);
+        assertTrue(ShardResults.merge(dir));
+        JSONObject suite = suite();
+        assertEquals(count(suite, "flows", Kind.VERIFIED), 15);
+        assertEquals(((Number) suite.get("shardsReported")).intValue(), 3);
+        assertEquals(((Number) suite.get("durationMs")).longValue(), 1002);
+    }
+
+    @Test
+    public void countsAreExactBeyondTheKeptFindings() throws Exception {
+        writeShard(0, 2, REV, HASH, 1, 5);
+        writeShard(1, 2, REV, HASH, 1, 3);
+        assertFalse(ShardResults.merge(dir), "mismatches must fail the merge");
+        assertEquals(count(suite(), "entities", Kind.MISMATCH), 8);
+    }
+
+    @Test
+    public void missingShardFails() throws Exception {
+        writeShard(0, 3, REV, HASH, 2, 0);
+        writeShard(2, 3, REV, HASH, 2, 0);
+        assertFalse(ShardResults.merge(dir));
+        assertEquals(((Number) suite().get("shardsReported")).intValue(), 2);
+    }
+
+    @Test
+    public void shardOfAnotherExportFails() throws Exception {
+        writeShard(0, 2, REV, HASH, 2, 0);
+        writeShard(1, 2, REV, "other-hash", 2, 0);
+        assertFalse(ShardResults.merge(dir));
+        assertEquals(count(suite(), "flows", Kind.VERIFIED), 2);
+    }
+
+    @Test
+    public void shardOfAnotherRevisionFails() {
+        writeShard(0, 2, REV, HASH, 2, 0);
+        writeShard(1, 2, REV + 1, HASH, 2, 0);
+        assertFalse(ShardResults.merge(dir));
+    }
+
+    @Test
+    public void emptyDirectoryFails() {
+        assertFalse(ShardResults.merge(dir));
+    }
+}
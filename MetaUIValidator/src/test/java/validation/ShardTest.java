@@ -0,0 +1,116 @@
+package validation;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+import org.testng.annotations.Test;
+
+import utils.JsonParserUtil.Entity;
+
+/**
+ * Shard.select: the shards of a run are disjoint, together cover every
+ * resource, keep the export order, and give each resource to the same shard
+ * however the export orders the resources.
+ */
+public class ShardTest {
+
+    private static List<Entity> resources(int n, long seed) {
+        Random random = new Random(seed);
+        List<Entity> resources = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Entity entity = new Entity();
+            entity.entityName = "E" + i;
+            entity.absoluteRef = "ent:Module/E" + i;
+            for (int f = random.nextInt(30); f > 0; f--) entity.fields.add("f" + f, "STRING", false);
+            resources.add(entity);
+        }
+        return resources;
+    }
+
+    private static final ToIntFunction<Entity> COST = e -> 1 + e.fields.size();
+
+    @Test
+    public void disjointAndCovering() {
+        for (int count = 1; count <= 7; count++) {
+            List<Entity> all = resources(250, count);
+            Set<Entity> seen = new HashSet<>();
+            int total = 0;
+            for (int index = 0; index < count; index++) {
+                List<Entity> selected = new Shard(index, count).select(all, COST, "entities");
+                for (Entity e : selected) assertTrue(seen.add(e), e.absoluteRef + " is in two shards");
+                total += selected.size();
+            }
+            assertEquals(total, all.size());
+            assertEquals(seen.size(), all.size());
+        }
+    }
+
+    @Test
+    public void keepsExportOrder() {
+        List<Entity> all = resources(100, 1);
+        for (int index = 0; index < 3; index++) {
+            List<Entity> selected = new Shard(index, 3).select(all, COST, "entities");
+            int last = -1;
+            for (Entity e : selected) {
+                int at = all.indexOf(e);
+                assertTrue(at > last, "not in export order");
+                last = at;
+            }
+        }
+    }
+
+    @Test
+    public void stableUnderReorderedExport() {
+        List<Entity> all = resources(300, 2);
+        List<Entity> reordered = new ArrayList<>(all);
+        Collections.shuffle(reordered, new Random(3));
+        for (int index = 0; index < 4; index++) {
+            Shard shard = new Shard(index, 4);
+            assertEquals(new HashSet<>(shard.select(reordered, COST, "entities")),
+                    new HashSet<>(shard.select(all, COST, "entities")));
+        }
+    }
+
+    @Test
+    public void balancesCost() {
+        List<Entity> all = resources(400, 4);
+        Map<Integer, Long> loads = new HashMap<>();
+        long max = 0, total = 0;
+        for (Entity e : all) {
+            total += COST.applyAsInt(e);
+            max = Math.max(max, COST.applyAsInt(e));
+        }
+        for (int index = 0; index < 4; index++) {
+            long load = 0;
+            for (Entity e : new Shard(index, 4).select(all, COST, "entities")) load += COST.applyAsInt(e);
+            loads.put(index, load);
+        }
+        // greedy largest-first: no shard ends more than one resource above an even split
+        for (long load : loads.values()) assertTrue(load <= total / 4 + max, "shard cost " + load + " of " + total);
+    }
+
+    @Test
+    public void unshardedRunKeepsEverything() {
+        List<Entity> all = resources(10, 5);
+        Shard shard = new Shard(0, 1);
+        assertFalse(shard.isSharded());
+        assertSame(shard.select(all, COST, "entities"), all);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void indexOutsideCountIsRejected() {
+        new Shard(2, 2);
+    }
+}
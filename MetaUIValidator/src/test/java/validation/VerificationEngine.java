@@ -0,0 +1,381 @@
+package validation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+
+import pages.DetailsPanel;
+import pages.ExplorerPaths;
+import pages.FieldRow;
+import pages.NavigationScheduler;
+import pages.PresenceSweep;
+import pages.ProjectDetailsPage;
+import utils.JsonParserUtil.Resource;
+import utils.ProjectModel;
+import validation.Finding.Kind;
+
+/**
+ * Verifies every resource of a type against the UI, the same way for all types;
+ * what differs between types is in its ResourceSpec.
+ *
+ * For one type (verify):
+ *  - Presence sweep (optional): which resources the explorer does not show at all
+ *  - Sharded runs: only the resources of this Shard
+ *  - Incremental runs: skip resources verified clean before (RunLedger)
+ *  - Visit the rest in explorer order (NavigationScheduler), and for each:
+ *    open it, compare fingerprints, and only if they differ read the details
+ *    panel and run the spec's comparisons
+ *  - With several browser sessions (SessionPool) the resources of each explorer
+ *    folder are one work item, taken by the next free session
+ *  - Only the browser work is done on a session's thread; expected values and
+ *    fingerprints are prepared one resource ahead, and comparisons and findings
+ *    run on the engine's own CPU threads (-Dverify.cpuThreads, default two per
+ *    session, so a session's next prepare never waits behind its comparisons,
+ *    whatever the core count); close() stops them
+ *  - Print the summary and throughput, and fail if anything is missing or mismatched
+ * Every result goes to the FindingsCollector as a Finding.
+ */
+public class VerificationEngine implements AutoCloseable {
+
+    // -Dverify.fingerprint=false always reads every cell
+    private static final boolean FINGERPRINTS = Boolean.parseBoolean(System.getProperty("verify.fingerprint", "true"));
+
+    private final ProjectModel model;
+    private final SessionPool sessions;
+    private final RunLedger ledger;
+    private final Shard shard;
+    // Threads for the work that does not need a browser: expected values, fingerprints, comparisons, findings
+    private final ExecutorService cpu;
+
+    private final FindingsCollector findings;
+    private Map<List<String>, Set<String>> childLabels;
+
+    // Resources whose page fingerprint was checked / matched the export
+    private final AtomicInteger fingerprintChecks = new AtomicInteger();
+    private final AtomicInteger fingerprintMatches = new AtomicInteger();
+
+    // What the export says about one resource, prepared before the browser gets to it
+    private static final class Expected<R> {
+        final R resource;
+        final List<String> path;
+        final String label;
+        final String fingerprint; // null: not compared
+        final List<Object> exact = new ArrayList<>();
+        final List<List<FieldRow>> rows = new ArrayList<>();
+
+        Expected(R resource, List<String> path, String label, String fingerprint) {
+            this.resource = resource;
+            this.path = path;
+            this.label = label;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    public VerificationEngine(ProjectModel model, SessionPool sessions, RunLedger ledger, FindingsCollector findings) {
+        this(model, sessions, ledger, findings, new Shard(0, 1));
+    }
+
+    public VerificationEngine(ProjectModel model, SessionPool sessions, RunLedger ledger, FindingsCollector findings,
+                              Shard shard) {
+        this.model = model;
+        this.sessions = sessions;
+        this.ledger = ledger;
+        this.findings = findings;
+        this.shard = shard;
+        int threads = Math.max(2, Integer.getInteger("verify.cpuThreads", 2 * sessions.size()));
+        this.cpu = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "verify-compare");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Stops the CPU threads; call once every verify has returned
+    @Override
+    public void close() {
+        cpu.shutdown();
+    }
+
+    public int getFingerprintChecks() {
+        return fingerprintChecks.get();
+    }
+
+    public int getFingerprintMatches() {
+        return fingerprintMatches.get();
+    }
+
+    public <R extends Resource> void verify(ResourceSpec<R> spec) {
+        System.out.println("\n VERIFYING " + spec.plural.toUpperCase());
+
+        List<R> resources = spec.resources.apply(model);
+        PresenceSweep.Result<R> presence = sweep(spec, resources);
+
+        List<R> mine = shard.select(resources, r -> cost(spec, r), spec.type);
+        List<R> ordered = NavigationScheduler.depthFirst(ledger.select(mine, spec.type),
+                r -> spec.path.apply(model, r), spec.type);
+        Queue<CompletableFuture<Boolean>> results = new ConcurrentLinkedQueue<>();
+        long start = System.nanoTime();
+        sessions.run(batches(spec, ordered), (session, batch) -> check(spec, batch, session, presence, results));
+        int verified = 0, failed = 0;
+        RuntimeException failure = null;
+        for (CompletableFuture<Boolean> result : results) {
+            try {
+                if (result.join()) verified++;
+                else failed++;
+            } catch (CompletionException e) {
+                failed++;
+                if (failure == null) failure = new RuntimeException("Failed to compare " + spec.type, e.getCause());
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (failure != null) throw failure;
+
+        // Build summary text for this type and fail at end if any problems found
+        System.out.println("\n" + spec.plural + " summary: total=" + ordered.size() + " | verified=" + verified
+                + " | failed=" + failed);
+        System.out.printf("%s: %d resources in %.1f s with %d session(s) (%.0f resources/min)%n", spec.plural,
+                ordered.size(), seconds, sessions.size(), seconds > 0 ? ordered.size() * 60 / seconds : 0.0);
+        if (findings.hasIssues(spec.type)) Assert.fail(findings.issues(spec.type, spec.singular));
+    }
+
+    /**
+     * Splits the depth-first order into runs of resources in the same explorer
+     * folder: one queue entry each, so a session opens a folder once for all of them.
+     * A large folder is split so that every session gets about four entries to work on.
+     */
+    private <R extends Resource> List<List<R>> batches(ResourceSpec<R> spec, List<R> ordered) {
+        int limit = Math.max(1, (ordered.size() + 4 * sessions.size() - 1) / (4 * sessions.size()));
+        List<List<R>> batches = new ArrayList<>();
+        List<String> folder = null;
+        for (R resource : ordered) {
+            List<String> path = spec.path.apply(model, resource);
+            List<String> parent = path.subList(0, Math.max(0, path.size() - 1));
+            if (!parent.equals(folder) || batches.get(batches.size() - 1).size() == limit) {
+                batches.add(new ArrayList<>());
+                folder = parent;
+            }
+            batches.get(batches.size() - 1).add(resource);
+        }
+        return batches;
+    }
+
+    /**
+     * Verifies a batch in a session. The session's thread only drives the browser:
+     * the next resource's expected values are prepared while the browser serves
+     * this one, and each panel read is compared on the CPU threads (one result
+     * per resource, true if it was verified).
+     */
+    private <R extends Resource> void check(ResourceSpec<R> spec, List<R> batch, SessionPool.Session session,
+                                            PresenceSweep.Result<R> presence, Queue<CompletableFuture<Boolean>> results) {
+        CompletableFuture<Expected<R>> next = prepare(spec, batch.get(0));
+        for (int i = 0; i < batch.size(); i++) {
+            Expected<R> expected = next.join();
+            if (i + 1 < batch.size()) next = prepare(spec, batch.get(i + 1));
+            results.add(check(spec, expected, session, presence));
+        }
+    }
+
+    private <R extends Resource> CompletableFuture<Boolean> check(ResourceSpec<R> spec, Expected<R> expected,
+                                                                  SessionPool.Session session, PresenceSweep.Result<R> presence) {
+        R resource = expected.resource;
+        ledger.forget(resource);
+        Subject subject = new Subject(spec.type, resource.ref, expected.label);
+        System.out.println("\nChecking " + subject.label + (sessions.size() > 1 ? " [session " + session.id + "]" : ""));
+
+        if (presence != null && presence.isMissing(resource)) {
+            subject.missing("presence sweep", null, null);
+            return CompletableFuture.completedFuture(false);
+        }
+
+        // Navigate and open the resource in UI (path derived from the export)
+        try {
+            session.explorer.navigatePath(expected.path);
+            System.out.println(" - Navigated to " + String.join(" > ", expected.path));
+        } catch (Exception e) {
+            subject.missing("navigation", null, e.getMessage());
+            return CompletableFuture.completedFuture(false);
+        }
+
+        // Same fingerprint in page and export -> verified without reading every cell
+        if (expected.fingerprint != null && sameFingerprint(expected.fingerprint, spec, session.details)) {
+            subject.verified("fingerprint");
+            ledger.recordClean(resource);
+            return CompletableFuture.completedFuture(true);
+        }
+
+        // Read UI details in one call
+        DetailsPanel panel;
+        try {
+            panel = spec.read.apply(session.details);
+        } catch (Exception e) {
+            subject.missing("detail read", null, e.getMessage());
+            return CompletableFuture.completedFuture(false);
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            if (!compare(spec, expected, panel, subject)) return false;
+            subject.verified(null);
+            ledger.recordClean(resource);
+            return true;
+        }, cpu);
+    }
+
+    // Path, label, fingerprint and compared values of a resource, computed on the CPU threads
+    private <R extends Resource> CompletableFuture<Expected<R>> prepare(ResourceSpec<R> spec, R resource) {
+        return CompletableFuture.supplyAsync(() -> {
+            Expected<R> expected = new Expected<>(resource, spec.path.apply(model, resource), spec.label.apply(resource),
+                    FINGERPRINTS && spec.fingerprint != null ? spec.fingerprint.apply(resource) : null);
+            for (ResourceSpec.Exact<R> exact : spec.exact) expected.exact.add(exact.expected.apply(resource));
+            for (ResourceSpec.Rows<R> rows : spec.rows) expected.rows.add(rows.expected.apply(resource));
+            return expected;
+        }, cpu);
+    }
+
+    // Runs the spec's comparisons on a panel read; true if everything matched
+    private <R extends Resource> boolean compare(ResourceSpec<R> spec, Expected<R> expected, DetailsPanel panel,
+                                                 Subject subject) {
+        boolean ok = true;
+        for (int i = 0; i < spec.exact.size(); i++) {
+            ResourceSpec.Exact<R> exact = spec.exact.get(i);
+            Object value = expected.exact.get(i);
+            Object found = exact.found.apply(panel);
+            if (found == null) found = "";
+            if (!Objects.equals(value, found)) {
+                ok = false;
+                subject.mismatch(exact.attribute, null, value, found);
+            }
+        }
+        for (int i = 0; i < spec.rows.size(); i++) {
+            ResourceSpec.Rows<R> rows = spec.rows.get(i);
+            List<FieldRow> found = rows.found.apply(panel);
+            // no rows at all -> mark missing, nothing to compare
+            if (found.isEmpty()) {
+                subject.missing(rows.whenEmpty, null, null);
+                return false;
+            }
+            RowComparator.Diff diff = RowComparator.compare(expected.rows.get(i), found);
+            if (rows.order == ResourceSpec.Order.SET) diff.reordered.clear();
+            if (!reportRows(diff, rows.row, subject)) ok = false;
+        }
+        return ok;
+    }
+
+    /**
+     * Compares the fingerprint the page computes with the export's (-Dverify.fingerprint=false
+     * to always read every cell). Anything but a match, including a failing script,
+     * only means the full read and comparison run.
+     */
+    private boolean sameFingerprint(String expected, ResourceSpec<?> spec, ProjectDetailsPage details) {
+        fingerprintChecks.incrementAndGet();
+        try {
+            if (expected.equals(spec.pageFingerprint.apply(details))) {
+                fingerprintMatches.incrementAndGet();
+                return true;
+            }
+            System.out.println(" - Fingerprint differs, comparing all details");
+        } catch (RuntimeException e) {
+            System.out.println(" - Fingerprint unavailable, comparing all details | " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Records the differences found by RowComparator for one resource ("field",
+     * "literal", "flow input" rows). Returns true if the rows matched.
+     */
+    private boolean reportRows(RowComparator.Diff diff, String row, Subject subject) {
+        for (FieldRow missing : diff.missing) subject.missing(row, missing.name, null);
+        for (FieldRow extra : diff.extra) subject.unexpected(row, extra.name);
+        for (RowComparator.Change change : diff.changed) {
+            subject.mismatch(row + " " + change.attribute, change.name, change.expected, change.found);
+        }
+        for (RowComparator.Move move : diff.reordered) {
+            subject.mismatch(row + " order", move.name, "pos " + move.expectedPos, "pos " + move.foundPos);
+        }
+        return diff.isClean();
+    }
+
+    // Labels the export places in each explorer folder, over all types (computed once)
+    private synchronized Map<List<String>, Set<String>> childLabels() {
+        if (childLabels == null) childLabels = ExplorerPaths.childLabels(model);
+        return childLabels;
+    }
+
+    // Cost estimate for sharding: one for opening the resource, one per row compared
+    private static <R extends Resource> int cost(ResourceSpec<R> spec, R resource) {
+        int cost = 1;
+        for (ResourceSpec.Rows<R> rows : spec.rows) cost += rows.expected.apply(resource).size();
+        return cost;
+    }
+
+    /**
+     * Presence sweep (-Dverify.presenceSweep=true): expands each explorer folder of the
+     * resources once and compares its child labels with the export. Resources shown in
+     * a folder the export does not have are recorded as unexpected; the returned result
+     * tells which resources are missing, so they are not navigated to. Null if the
+     * sweep is off or the explorer tree cannot be read in bulk.
+     */
+    private <R extends Resource> PresenceSweep.Result<R> sweep(ResourceSpec<R> spec, List<R> resources) {
+        if (!Boolean.getBoolean("verify.presenceSweep")) return null;
+        PresenceSweep.Result<R> result = PresenceSweep.run(sessions.first().explorer, resources,
+                r -> spec.path.apply(model, r), childLabels(), spec.type);
+        if (result == null) {
+            System.out.println("Presence sweep " + spec.type + ": explorer tree not readable, navigating each resource");
+            return null;
+        }
+        // every shard sweeps all folders of the type, but only the first reports the labels it did not expect
+        if (shard.index > 0) return result;
+        for (Map.Entry<String, List<String>> folder : result.unexpected.entrySet()) {
+            Subject subject = new Subject(spec.type, null, folder.getKey());
+            for (String label : folder.getValue()) subject.unexpected("presence sweep", label);
+        }
+        return result;
+    }
+
+    // The resource being verified; its findings go to the collector and the log
+    private class Subject {
+        final String type;
+        final String ref;
+        final String label;
+
+        Subject(String type, String ref, String label) {
+            this.type = type;
+            this.ref = ref;
+            this.label = label;
+        }
+
+        void missing(String check, String item, String detail) {
+            add(Kind.MISSING, check, item, null, null, detail);
+        }
+
+        void mismatch(String check, String item, Object expected, Object actual) {
+            add(Kind.MISMATCH, check, item, expected, actual, null);
+        }
+
+        void unexpected(String check, String item) {
+            add(Kind.UNEXPECTED, check, item, null, null, null);
+        }
+
+        void verified(String check) {
+            findings.add(new Finding(Kind.VERIFIED, type, ref, label, check, null, null, null, null));
+            System.out.println(label + " — Found & verified" + (check == null ? "" : " (" + check + ")"));
+        }
+
+        private void add(Kind kind, String check, String item, Object expected, Object actual, String detail) {
+            Finding finding = new Finding(kind, type, ref, label, check, item, expected, actual, detail);
+            findings.add(finding);
+            System.out.println(" - " + finding);
+        }
+    }
+}